@@ -0,0 +1,306 @@
+package com.projectgalen.lib.utils;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: BinaryProperties.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * A read-only set of properties stored in a compact, indexed binary form.
+ * <p>
+ * The format is written at build time by {@link #main(String[])} from <code>.xml</code> or <code>.properties</code> files. Loading it only reads the bytes, or maps them into
+ * memory when the resource is a file, so no XML needs to be parsed at runtime. Keys are found by a binary search of an index sorted on {@link String#hashCode()} and are decoded
+ * only when they are first looked at.
+ * <p>
+ * Layout (all integers big-endian):
+ * <pre>
+ *     int magic ('PGBP'), int version, int count
+ *     count * { int keyHash, int keyOffset, int keyLength, int valueOffset, int valueLength }   (sorted by keyHash)
+ *     UTF-8 key and value bytes; offsets are relative to the start of this section
+ * </pre>
+ * Instances are thread-safe.
+ */
+@SuppressWarnings("unused")
+public final class BinaryProperties {
+
+    public static final String EXTENSION = "pgbin";
+
+    private static final PGResourceBundle msgs       = PGResources.msgs();
+    private static final int              MAGIC      = 0x50474250;
+    private static final int              VERSION    = 1;
+    private static final int              HEADER     = 12;
+    private static final int              ENTRY_SIZE = 20;
+
+    private final ByteBuffer buffer;
+    private final int        count;
+    private final int        dataStart;
+    private final String[]   keys;
+    private final String[]   values;
+
+    private BinaryProperties(@NotNull ByteBuffer buffer, @NotNull Object source) throws IOException {
+        this.buffer = buffer.asReadOnlyBuffer();
+        if((buffer.capacity() < HEADER) || (buffer.getInt(0) != MAGIC) || (buffer.getInt(4) != VERSION)) throw new IOException(msgs.format("msg.err.binprops.bad_format", source));
+        this.count     = buffer.getInt(8);
+        this.dataStart = (HEADER + (count * ENTRY_SIZE));
+        if((count < 0) || (dataStart > buffer.capacity())) throw new IOException(msgs.format("msg.err.binprops.bad_format", source));
+        this.keys   = new String[count];
+        this.values = new String[count];
+    }
+
+    public boolean containsKey(@NotNull String key) {
+        return (indexOf(key) >= 0);
+    }
+
+    /**
+     * Copies all of the properties into the given {@link Properties} object.
+     *
+     * @param props The properties object.
+     * @param <T>   The type of the properties object.
+     * @return The properties object.
+     */
+    public <T extends Properties> @NotNull T copyTo(@NotNull T props) {
+        for(int i = 0; i < count; i++) props.setProperty(key(i), value(i));
+        return props;
+    }
+
+    public @Nullable String getProperty(@NotNull String key) {
+        int i = indexOf(key);
+        return ((i < 0) ? null : value(i));
+    }
+
+    public @NotNull @Unmodifiable Set<String> keySet() {
+        Set<String> set = new LinkedHashSet<>(count);
+        for(int i = 0; i < count; i++) set.add(key(i));
+        return Collections.unmodifiableSet(set);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private int indexOf(@NotNull String key) {
+        int hash = key.hashCode();
+        int lo   = 0;
+        int hi   = (count - 1);
+
+        while(lo <= hi) {
+            int mid = ((lo + hi) >>> 1);
+            int h   = buffer.getInt(HEADER + (mid * ENTRY_SIZE));
+            if(h < hash) lo = (mid + 1);
+            else if(h > hash) hi = (mid - 1);
+            else {
+                while((mid > 0) && (buffer.getInt(HEADER + ((mid - 1) * ENTRY_SIZE)) == hash)) mid--;
+                for(; (mid < count) && (buffer.getInt(HEADER + (mid * ENTRY_SIZE)) == hash); mid++) if(key.equals(key(mid))) return mid;
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private @NotNull String key(int i) {
+        String k = keys[i];
+        if(k == null) keys[i] = k = string(HEADER + (i * ENTRY_SIZE) + 4);
+        return k;
+    }
+
+    private @NotNull String string(int entryPos) {
+        int    off   = (dataStart + buffer.getInt(entryPos));
+        int    len   = buffer.getInt(entryPos + 4);
+        byte[] bytes = new byte[len];
+        buffer.get(off, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private @NotNull String value(int i) {
+        String v = values[i];
+        if(v == null) values[i] = v = string(HEADER + (i * ENTRY_SIZE) + 12);
+        return v;
+    }
+
+    /**
+     * Compiles the named <code>.xml</code> or <code>.properties</code> files into the binary form. The output files have the same base names with the extension {@link #EXTENSION}.
+     * <pre>
+     *     BinaryProperties --src-dir &lt;dir&gt; --dest-dir &lt;dir&gt; -- &lt;file&gt;...
+     * </pre>
+     *
+     * @param args The command line arguments.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void main(String... args) throws IOException {
+        Path         srcDir  = Paths.get(".");
+        Path         destDir = null;
+        List<String> files   = new ArrayList<>();
+
+        for(int i = 0; i < args.length; i++) {
+            switch(args[i]) {/*@f0*/
+                case "--src-dir"  -> { if(++i < args.length) srcDir  = Paths.get(args[i]); }
+                case "--dest-dir" -> { if(++i < args.length) destDir = Paths.get(args[i]); }
+                case "--"         -> { files.addAll(Arrays.asList(args).subList(i + 1, args.length)); i = args.length; }
+                default           -> files.add(args[i]);
+            }/*@f1*/
+        }
+
+        if(files.isEmpty()) {
+            System.err.println(msgs.getString("msg.err.binprops.usage"));
+            System.exit(1);
+        }
+
+        for(String name : files) {
+            Path       src   = srcDir.resolve(name);
+            Properties props = new Properties();
+            try(InputStream in = new BufferedInputStream(Files.newInputStream(src))) {
+                if(name.endsWith(".xml")) props.loadFromXML(in);
+                else props.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+            Path dest = Objects.requireNonNullElse(destDir, src.toAbsolutePath().getParent()).resolve(resourceName(src.getFileName().toString()));
+            try(OutputStream out = new BufferedOutputStream(Files.newOutputStream(dest))) { write(props, out); }
+        }
+    }
+
+    /**
+     * Loads the binary form from a stream. The stream is read to the end but not closed.
+     *
+     * @param inputStream The stream.
+     * @return The properties.
+     * @throws IOException If an I/O error occurs or the data is not in the binary form.
+     */
+    public static @NotNull BinaryProperties load(@NotNull InputStream inputStream) throws IOException {
+        return new BinaryProperties(ByteBuffer.wrap(inputStream.readAllBytes()), inputStream);
+    }
+
+    /**
+     * Loads the binary form from a URL. If the URL refers to a file then the file is mapped into memory, otherwise it is read.
+     *
+     * @param url The URL.
+     * @return The properties.
+     * @throws IOException If an I/O error occurs or the data is not in the binary form.
+     */
+    public static @NotNull BinaryProperties load(@NotNull URL url) throws IOException {
+        if("file".equals(url.getProtocol())) {
+            try { return load(Paths.get(url.toURI())); } catch(URISyntaxException | IllegalArgumentException ignore) { }
+        }
+        try(InputStream in = url.openStream()) { return new BinaryProperties(ByteBuffer.wrap(in.readAllBytes()), url); }
+    }
+
+    /**
+     * Maps a file holding the binary form into memory.
+     *
+     * @param path The file.
+     * @return The properties.
+     * @throws IOException If an I/O error occurs or the file is not in the binary form.
+     */
+    public static @NotNull BinaryProperties load(@NotNull Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new BinaryProperties(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), path);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the binary form is at least as new as the resource it was compiled from. A binary form whose source has since been edited is out of date and
+     * should not be used. If either modification time cannot be determined the binary form is assumed to be current.
+     *
+     * @param compiled The URL of the binary form.
+     * @param source   The URL of the <code>.xml</code> or <code>.properties</code> resource or <code>null</code> if there is none.
+     * @return <code>true</code> if the binary form can be used.
+     */
+    public static boolean isCurrent(@NotNull URL compiled, @Nullable URL source) {
+        if(source == null) return true;
+        long c = lastModified(compiled);
+        long s = lastModified(source);
+        return ((c == 0) || (s == 0) || (c >= s));
+    }
+
+    /**
+     * Returns the URL of the binary form of a resource, if there is one, found by replacing the extension of the resource name with {@link #EXTENSION}. A binary form that is
+     * older than the resource itself is ignored.
+     *
+     * @param resourceName The name of the <code>.xml</code> or <code>.properties</code> resource.
+     * @param clazz        The class used to find the resource.
+     * @return The URL or <code>null</code> if there is no current binary form.
+     */
+    public static @Nullable URL locate(@NotNull String resourceName, @NotNull Class<?> clazz) {
+        URL compiled = clazz.getResource(resourceName(resourceName));
+        return (((compiled != null) && isCurrent(compiled, clazz.getResource(resourceName))) ? compiled : null);
+    }
+
+    public static @NotNull String resourceName(@NotNull String name) {
+        int dot   = name.lastIndexOf('.');
+        int slash = name.lastIndexOf('/');
+        return (((dot > slash) ? name.substring(0, dot) : name) + '.' + EXTENSION);
+    }
+
+    /**
+     * Writes properties in the binary form.
+     *
+     * @param props        The properties.
+     * @param outputStream The stream to write to. It is not closed.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void write(@NotNull Properties props, @NotNull OutputStream outputStream) throws IOException {
+        List<String> names = new ArrayList<>(props.stringPropertyNames());
+        names.sort(Comparator.comparingInt(String::hashCode).thenComparing(Comparator.naturalOrder()));
+
+        DataOutputStream      out  = new DataOutputStream(outputStream);
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(names.size());
+        for(String name : names) {
+            byte[] k = name.getBytes(StandardCharsets.UTF_8);
+            byte[] v = props.getProperty(name).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(name.hashCode());
+            out.writeInt(data.size());
+            out.writeInt(k.length);
+            data.write(k);
+            out.writeInt(data.size());
+            out.writeInt(v.length);
+            data.write(v);
+        }
+        data.writeTo(out);
+        out.flush();
+    }
+
+    private static long lastModified(@NotNull URL url) {
+        try {
+            if("file".equals(url.getProtocol())) return Files.getLastModifiedTime(Paths.get(url.toURI())).toMillis();
+            return url.openConnection().getLastModified();
+        }
+        catch(IOException | URISyntaxException | RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -28,14 +28,14 @@ import org.jetbrains.annotations.Range;
 
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 
 @SuppressWarnings({ "DuplicatedCode", "unused" })
 public final class Dates {
-    private static final PGResourceBundle              msgs          = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
-    private static final Map<String, SimpleDateFormat> formatters    = new TreeMap<>();
-    private static final int[]                         DAYS_OF_MONTH = new int[] { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+    private static final PGResourceBundle msgs          = PGResources.msgs();
+    private static final int[]            DAYS_OF_MONTH = new int[] { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
 
     private Dates() { }
 
@@ -323,12 +323,7 @@ public final class Dates {
     }
 
     public static @NotNull String format(@NotNull String pattern, @Nullable Date date, @NotNull String defaultString) {
-        if(date == null) return defaultString;
-        synchronized(formatters) {
-            SimpleDateFormat fmt = formatters.get(pattern);
-            if(fmt == null) formatters.put(pattern, (fmt = new SimpleDateFormat(pattern)));
-            return fmt.format(date);
-        }
+        return ((date == null) ? defaultString : getFormatter(pattern).format(date));
     }
 
     public static @Range(from = 0, to = 1) int getAmPm(@NotNull Calendar c) {
@@ -574,6 +569,41 @@ public final class Dates {
         return (date1.compareTo(date2) <= 0);
     }
 
+    /**
+     * Parses the given string using the given {@link SimpleDateFormat} pattern. The formatter is cached the same way as the one used by {@link #format(String, Date, String)}.
+     *
+     * @param pattern The {@link SimpleDateFormat} pattern.
+     * @param str     The string to parse.
+     *
+     * @return The parsed date or <code>null</code> if <code>str</code> is <code>null</code>.
+     *
+     * @throws ParseException If the string could not be parsed.
+     */
+    public static @Nullable Date parse(@NotNull String pattern, @Nullable String str) throws ParseException {
+        return ((str == null) ? null : getFormatter(pattern).parse(str));
+    }
+
+    @Contract("_,_,!null -> !null")
+    public static Date parse(@NotNull String pattern, @Nullable String str, @Nullable Date defaultDate) {
+        try {
+            Date date = parse(pattern, str);
+            return ((date == null) ? defaultDate : date);
+        }
+        catch(ParseException e) {
+            return defaultDate;
+        }
+    }
+
+    public static @Nullable Calendar parseCalendar(@NotNull String pattern, @Nullable String str) throws ParseException {
+        return toCalendar(parse(pattern, str));
+    }
+
+    @Contract("_,_,!null -> !null")
+    public static Calendar parseCalendar(@NotNull String pattern, @Nullable String str, @Nullable Calendar defaultCalendar) {
+        Date date = parse(pattern, str, null);
+        return ((date == null) ? defaultCalendar : toCalendar(date));
+    }
+
     @Contract("_, _ -> param1")
     public static @NotNull Calendar setAmPm(@NotNull Calendar c, @MagicConstant(intValues = { Calendar.AM, Calendar.PM }) int value) {
         c.set(Calendar.AM_PM, value);
@@ -758,4 +788,18 @@ public final class Dates {
     private static @NotNull Calendar getCalendarInstance(@Nullable TimeZone tz, @Nullable Locale locale) {
         return Calendar.getInstance(((tz == null) ? TimeZone.getDefault() : tz), ((locale == null) ? Locale.getDefault() : locale));
     }
+
+    @SuppressWarnings("unchecked")
+    private static @NotNull SimpleDateFormat getFormatter(@NotNull String pattern) {
+        return ((ThreadLocal<SimpleDateFormat>)FormatterHolder.FORMATTERS.computeIfAbsent(pattern, ThreadLocal.class, p -> ThreadLocal.withInitial(() -> new SimpleDateFormat(p)))).get();
+    }
+
+    /**
+     * {@link SimpleDateFormat} is not thread safe so each thread gets its own instance for each pattern. Looking one up is a lock-free {@link ObjCache} read followed by a
+     * {@link ThreadLocal} read so no thread ever waits on another. The cache is bounded by <code>dates.formatter.cache.max_size</code> so that callers building patterns on the
+     * fly cannot make it grow without limit. The formatters of an evicted pattern are dropped by each thread's {@link ThreadLocal} map as it cleans out stale entries.
+     */
+    private static final class FormatterHolder {
+        private static final ObjCache FORMATTERS = new ObjCache(PGResources.props().getInt("dates.formatter.cache.max_size", 256));
+    }
 }
@@ -25,69 +25,352 @@ package com.projectgalen.lib.utils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+/**
+ * A registry of event listeners, grouped by listener class. Each listener class has its own copy-on-write snapshot array, so firing an event takes no lock and allocates
+ * nothing. Adding and removing listeners copies the array for that one listener class and is expected to be rare. Listeners are called on the thread that fires the event, in
+ * the order they were added, and are free to add or remove listeners while they are being called; the change takes effect with the next event.
+ * <p>
+ * If the registry is created with weak references then it does not keep its listeners from being garbage collected. Listeners that have been collected are skipped and are
+ * removed the next time the registry is changed or a stale entry is seen while firing an event.
+ * <p>
+ * Events can also be delivered asynchronously with {@link #fireEventAsync(Class, EventObject, BiConsumer)} and {@link #fireEventBatched(Class, EventObject, BiConsumer)}. Each
+ * listener then gets its own bounded queue which is drained on the registry's executor, so a slow listener only holds up its own events. Every listener still sees its events in
+ * the order they were fired. What happens when a listener's queue is full is decided by the registry's {@link OverflowPolicy}. Exceptions thrown by listeners during
+ * asynchronous delivery are passed to the uncaught exception handler of the delivering thread.
+ */
 @SuppressWarnings({ "unchecked", "unused" })
 public class EventListeners {
 
-    private final List<Pair> listeners = new ArrayList<>();
+    public enum OverflowPolicy {
+        /**
+         * The thread firing the event waits until there is room in the listener's queue.
+         */
+        BLOCK,
+        /**
+         * The new event is dropped.
+         */
+        DROP_NEWEST,
+        /**
+         * The oldest event waiting in the listener's queue is dropped to make room for the new one.
+         */
+        DROP_OLDEST
+    }
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private static final Pair[] NO_PAIRS = new Pair[0];
+
+    private final Map<Class<?>, Pair[]> listeners = new ConcurrentHashMap<>();
+    private final boolean               weak;
+    private final Executor              executor;
+    private final int                   queueCapacity;
+    private final int                   maxBatchSize;
+    private final OverflowPolicy        overflowPolicy;
+    private final LongAdder             dropped   = new LongAdder();
+
+    public EventListeners() {
+        this(false);
+    }
+
+    /**
+     * Creates a new registry.
+     *
+     * @param useWeakReferences If <code>true</code> then the registry only holds weak references to its listeners.
+     */
+    public EventListeners(boolean useWeakReferences) {
+        this(useWeakReferences, null, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH_SIZE, OverflowPolicy.BLOCK);
+    }
 
-    public EventListeners() { }
+    /**
+     * Creates a new registry.
+     *
+     * @param useWeakReferences If <code>true</code> then the registry only holds weak references to its listeners.
+     * @param executor          The executor used for asynchronous delivery or <code>null</code> to use a shared pool of daemon threads.
+     * @param queueCapacity     The number of events that can wait for each listener during asynchronous delivery.
+     * @param maxBatchSize      The largest number of events handed to a listener in one batch by {@link #fireEventBatched(Class, EventObject, BiConsumer)}.
+     * @param overflowPolicy    What to do when a listener's queue is full.
+     */
+    public EventListeners(boolean useWeakReferences, @Nullable Executor executor, int queueCapacity, int maxBatchSize, @NotNull OverflowPolicy overflowPolicy) {
+        this.weak           = useWeakReferences;
+        this.executor       = ((executor == null) ? DispatchPool.EXECUTOR : executor);
+        this.queueCapacity  = Math.max(1, queueCapacity);
+        this.maxBatchSize   = Math.max(1, maxBatchSize);
+        this.overflowPolicy = overflowPolicy;
+    }
 
     public <L extends EventListener> void add(@NotNull Class<L> cls, @NotNull L listener) {
-        synchronized(listeners) {
-            listeners.removeIf(p -> (p.getListener() == null));
-            if(stream(cls).noneMatch(l -> (l.equals(listener)))) listeners.add(new Pair(cls, listener));
-        }
+        listeners.compute(cls, (k, pairs) -> {
+            Pair[] live = purge(pairs);
+            for(Pair p : live) if(listener.equals(p.getListener())) return live;
+            Pair[] grown = Arrays.copyOf(live, live.length + 1);
+            grown[live.length] = new Pair(listener, weak);
+            return grown;
+        });
     }
 
     public <L extends EventListener, E extends EventObject> void fireEvent(@NotNull Class<L> cls, @NotNull E event, @NotNull BiConsumer<L, E> biConsumer) {
-        synchronized(listeners) { stream(cls).forEach(l -> biConsumer.accept(l, event)); }
+        Pair[]  pairs = listeners.getOrDefault(cls, NO_PAIRS);
+        boolean stale = false;
+
+        for(Pair p : pairs) {
+            L l = (L)p.getListener();
+            if(l == null) stale = true;
+            else biConsumer.accept(l, event);
+        }
+
+        if(stale) purge(cls);
+    }
+
+    /**
+     * Queues an event for every listener of the given class and returns without waiting for any of them. Each listener is called on the registry's executor.
+     *
+     * @param cls        The listener class.
+     * @param event      The event.
+     * @param biConsumer Delivers the event to a listener.
+     * @param <L>        The listener type.
+     * @param <E>        The event type.
+     */
+    public <L extends EventListener, E extends EventObject> void fireEventAsync(@NotNull Class<L> cls, @NotNull E event, @NotNull BiConsumer<L, E> biConsumer) {
+        enqueue(cls, new Task(event, (BiConsumer<Object, Object>)(BiConsumer<?, ?>)biConsumer, false));
+    }
+
+    /**
+     * Queues an event for every listener of the given class, like {@link #fireEventAsync(Class, EventObject, BiConsumer)}, except that events which pile up while a listener is
+     * busy are handed to it together. Consecutive queued events fired with the same <code>batchConsumer</code> are coalesced into one list of at most
+     * <code>maxBatchSize</code> events, in the order they were fired.
+     *
+     * @param cls           The listener class.
+     * @param event         The event.
+     * @param batchConsumer Delivers a batch of events to a listener.
+     * @param <L>           The listener type.
+     * @param <E>           The event type.
+     */
+    public <L extends EventListener, E extends EventObject> void fireEventBatched(@NotNull Class<L> cls, @NotNull E event, @NotNull BiConsumer<L, List<E>> batchConsumer) {
+        enqueue(cls, new Task(event, (BiConsumer<Object, Object>)(BiConsumer<?, ?>)batchConsumer, true));
     }
 
     public <L extends EventListener> void forEach(@NotNull Class<L> cls, @NotNull Consumer<L> consumer) {
-        synchronized(listeners) { stream(cls).forEach(consumer); }
+        for(Pair p : listeners.getOrDefault(cls, NO_PAIRS)) {
+            L l = (L)p.getListener();
+            if(l != null) consumer.accept(l);
+        }
     }
 
     public <L extends EventListener> @NotNull List<L> getListeners(@NotNull Class<L> cls) {
-        synchronized(listeners) { return stream(cls).collect(Collectors.toList()); }
+        List<L> list = new ArrayList<>();
+        forEach(cls, list::add);
+        return list;
+    }
+
+    public long getDroppedEventCount() {
+        return dropped.sum();
+    }
+
+    public @NotNull Executor getExecutor() {
+        return executor;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public @NotNull OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public boolean hasListeners(@NotNull Class<? extends EventListener> cls) {
+        for(Pair p : listeners.getOrDefault(cls, NO_PAIRS)) if(p.getListener() != null) return true;
+        return false;
+    }
+
+    public boolean isWeak() {
+        return weak;
     }
 
     public <L extends EventListener> void remove(@NotNull Class<L> cls, @NotNull L listener) {
-        synchronized(listeners) { listeners.removeIf(p -> _pred(cls, p.getCls(), listener, p.getListener())); }
+        listeners.computeIfPresent(cls, (k, pairs) -> {
+            Pair[] live = purge(pairs);
+            for(int i = 0; i < live.length; i++) {
+                if(listener.equals(live[i].getListener())) {
+                    Pair[] shrunk = new Pair[live.length - 1];
+                    System.arraycopy(live, 0, shrunk, 0, i);
+                    System.arraycopy(live, i + 1, shrunk, i, shrunk.length - i);
+                    live = shrunk;
+                    break;
+                }
+            }
+            return ((live.length == 0) ? null : live);
+        });
+    }
+
+    private void enqueue(@NotNull Class<?> cls, @NotNull Task task) {
+        boolean stale = false;
+        for(Pair p : listeners.getOrDefault(cls, NO_PAIRS)) {
+            if(p.getListener() == null) stale = true;
+            else p.mailbox(this).offer(task);
+        }
+        if(stale) purge(cls);
+    }
+
+    private void purge(@NotNull Class<?> cls) {
+        listeners.computeIfPresent(cls, (k, pairs) -> {
+            Pair[] live = purge(pairs);
+            return ((live.length == 0) ? null : live);
+        });
     }
 
-    private boolean _pred(@NotNull Class<?> c1, @NotNull Class<?> c2, @NotNull EventListener l1, @Nullable EventListener l2) {
-        return ((l2 == null) || ((c1 == c2) && l1.equals(l2)));
+    private static Pair @NotNull [] purge(Pair @Nullable [] pairs) {
+        if(pairs == null) return NO_PAIRS;
+        int live = 0;
+        for(Pair p : pairs) if(p.getListener() != null) live++;
+        if(live == pairs.length) return pairs;
+
+        Pair[] purged = new Pair[live];
+        int    i      = 0;
+        for(Pair p : pairs) if(p.getListener() != null) purged[i++] = p;
+        return purged;
     }
 
-    private <L extends EventListener> @NotNull Stream<L> stream(@NotNull Class<L> cls) {
-        return listeners.stream().filter(p -> (p.getCls() == cls)).map(p -> (L)p.getListener()).filter(Objects::nonNull);
+    private static final class DispatchPool {
+        private static final Executor EXECUTOR = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "EventListeners-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
-    @SuppressWarnings("NullableProblems")
-    private static class Pair {
-        private final @NotNull Class<? extends EventListener> cls;
-        private final @NotNull EventListener                  listener;
-        // private final @NotNull WeakReference<EventListener>   listener;
+    /*
+     * The queue of events waiting for one listener. At most one drain task per mailbox is ever scheduled on the executor, which is what keeps a listener's events in order.
+     */
+    private static final class Mailbox implements Runnable {
+        private final Pair                owner;
+        private final EventListeners      registry;
+        private final BlockingQueue<Task> queue;
+        private final AtomicBoolean       scheduled = new AtomicBoolean(false);
 
-        public Pair(@NotNull Class<? extends EventListener> cls, @NotNull EventListener listener) {
-            this.cls = cls;
-            // this.listener = new WeakReference<>(listener);
-            this.listener = listener;
+        public Mailbox(@NotNull Pair owner, @NotNull EventListeners registry) {
+            this.owner    = owner;
+            this.registry = registry;
+            this.queue    = new ArrayBlockingQueue<>(registry.queueCapacity);
         }
 
-        public @NotNull Class<? extends EventListener> getCls() {
-            return cls;
+        public void offer(@NotNull Task task) {
+            switch(registry.overflowPolicy) {
+                case BLOCK -> {
+                    try {
+                        queue.put(task);
+                    }
+                    catch(InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        registry.dropped.increment();
+                        return;
+                    }
+                }
+                case DROP_NEWEST -> {
+                    if(!queue.offer(task)) {
+                        registry.dropped.increment();
+                        return;
+                    }
+                }
+                case DROP_OLDEST -> {
+                    while(!queue.offer(task)) if(queue.poll() != null) registry.dropped.increment();
+                }
+            }
+            schedule();
         }
 
-        public EventListener getListener() {
-            // return listener.get();
-            return listener;
+        public @Override void run() {
+            try {
+                EventListener listener = owner.getListener();
+                for(int i = 0; i < registry.maxBatchSize; i++) {
+                    Task task = queue.poll();
+                    if(task == null) break;
+                    if(listener == null) continue;
+                    try {
+                        if(task.batched) deliverBatch(listener, task);
+                        else task.consumer.accept(listener, task.event);
+                    }
+                    catch(Throwable t) {
+                        Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+                    }
+                }
+            }
+            finally {
+                scheduled.set(false);
+                if(!queue.isEmpty()) schedule();
+            }
+        }
+
+        private void deliverBatch(@NotNull EventListener listener, @NotNull Task first) {
+            List<Object> batch = new ArrayList<>();
+            batch.add(first.event);
+            for(Task next = queue.peek(); (next != null) && next.batched && (next.consumer == first.consumer) && (batch.size() < registry.maxBatchSize); next = queue.peek()) {
+                batch.add(queue.poll().event);
+            }
+            first.consumer.accept(listener, batch);
+        }
+
+        private void schedule() {
+            if(scheduled.compareAndSet(false, true)) {
+                try {
+                    registry.executor.execute(this);
+                }
+                catch(RejectedExecutionException e) {
+                    scheduled.set(false);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static final class Pair {
+        private final    EventListener                listener;
+        private final    WeakReference<EventListener> weakListener;
+        private volatile Mailbox                      mailbox = null;
+
+        public Pair(@NotNull EventListener listener, boolean weak) {
+            this.listener     = (weak ? null : listener);
+            this.weakListener = (weak ? new WeakReference<>(listener) : null);
+        }
+
+        public @Nullable EventListener getListener() {
+            return ((weakListener == null) ? listener : weakListener.get());
+        }
+
+        public @NotNull Mailbox mailbox(@NotNull EventListeners registry) {
+            Mailbox mb = mailbox;
+            if(mb == null) {
+                synchronized(this) {
+                    if((mb = mailbox) == null) mailbox = mb = new Mailbox(this, registry);
+                }
+            }
+            return mb;
+        }
+    }
+
+    private static final class Task {
+        private final Object                     event;
+        private final BiConsumer<Object, Object> consumer;
+        private final boolean                    batched;
+
+        public Task(@NotNull Object event, @NotNull BiConsumer<Object, Object> consumer, boolean batched) {
+            this.event    = event;
+            this.consumer = consumer;
+            this.batched  = batched;
         }
     }
 }
@@ -20,15 +20,26 @@ package com.projectgalen.lib.utils;
 // IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
 // ===========================================================================
 
+import com.projectgalen.lib.utils.io.MappedFileInputStream;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
 
 @SuppressWarnings({ "UnusedReturnValue", "unused" })
 public final class IO {
 
-    private static final PGProperties props = PGProperties.getXMLProperties("pg_properties.xml", PGProperties.class);
+    private static final PGProperties     props = PGResources.props();
+    private static final PGResourceBundle msgs  = PGResources.msgs();
 
     private IO() { }
 
@@ -37,11 +48,57 @@ public final class IO {
     }
 
     public static long copy(@NotNull File inputFile, @NotNull OutputStream outputStream, boolean closeOutputOnSuccess) throws IOException {
-        return copy(new FileInputStream(inputFile), outputStream, true, closeOutputOnSuccess);
+        return copy(inputFile.toPath(), outputStream, closeOutputOnSuccess);
     }
 
     public static long copy(@NotNull File inputFile, @NotNull File outputFile) throws IOException {
-        return copy(inputFile, new FileOutputStream(outputFile), true);
+        return copy(inputFile.toPath(), outputFile.toPath());
+    }
+
+    public static long copy(@NotNull File inputFile, @NotNull WritableByteChannel channel) throws IOException {
+        return copy(inputFile.toPath(), channel);
+    }
+
+    /**
+     * Copies a file to another file. The copy is done with {@link FileChannel#transferTo(long, long, WritableByteChannel)} so that, where the operating system supports it, the data
+     * never passes through user space.
+     *
+     * @param inputPath  The source file.
+     * @param outputPath The destination file. It is created if needed and truncated if it exists.
+     *
+     * @return The number of bytes copied.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public static long copy(@NotNull Path inputPath, @NotNull Path outputPath) throws IOException {
+        try(FileChannel src = FileChannel.open(inputPath, StandardOpenOption.READ);
+            FileChannel dst = FileChannel.open(outputPath, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return transfer(src, dst);
+        }
+    }
+
+    public static long copy(@NotNull Path inputPath, @NotNull OutputStream outputStream, boolean closeOutputOnSuccess) throws IOException {
+        long total;
+
+        try(FileChannel src = FileChannel.open(inputPath, StandardOpenOption.READ)) {
+            if(outputStream instanceof FileOutputStream fos) {
+                total = transfer(src, fos.getChannel());
+            }
+            else {
+                try { total = Channels.newInputStream(src).transferTo(outputStream); } finally { outputStream.flush(); }
+            }
+        }
+
+        if(closeOutputOnSuccess) closeQuietly(outputStream);
+        return total;
+    }
+
+    public static long copy(@NotNull Path inputPath, @NotNull WritableByteChannel channel) throws IOException {
+        try(FileChannel src = FileChannel.open(inputPath, StandardOpenOption.READ)) { return transfer(src, channel); }
+    }
+
+    public static long copy(@NotNull InputStream inputStream, @NotNull Path outputPath) throws IOException {
+        return copy(inputStream, outputPath.toFile());
     }
 
     public static long copy(@NotNull InputStream inputStream, @NotNull OutputStream outputStream) throws IOException {
@@ -53,17 +110,11 @@ public final class IO {
     }
 
     public static long copy(@NotNull InputStream inputStream, @NotNull OutputStream outputStream, boolean closeInputOnSuccess, boolean closeOutputOnSuccess) throws IOException {
-        long total = 0;
+        long total;
 
         try {
-            byte[] buff = new byte[props.getInt("default.read_buffer_size")];
-            int    cc   = inputStream.read(buff);
-
-            while(cc >= 0) {
-                outputStream.write(buff, 0, cc);
-                total += cc;
-                cc = inputStream.read(buff);
-            }
+            if((inputStream instanceof FileInputStream fis) && (outputStream instanceof FileOutputStream fos)) total = transfer(fis.getChannel(), fos.getChannel());
+            else total = inputStream.transferTo(outputStream);
         }
         finally {
             outputStream.flush();
@@ -111,12 +162,37 @@ public final class IO {
         try { return file.getCanonicalFile(); } catch(IOException ignore) { return file; }
     }
 
+    /**
+     * Maps an entire file into memory, read-only. The contents are paged in by the operating system as they are accessed and are not copied onto the Java heap.
+     *
+     * @param path The file.
+     *
+     * @return A read-only buffer over the contents of the file.
+     *
+     * @throws IOException If an I/O error occurs or the file is larger than 2GB. Use {@link #mapFile(Path, long, long)} or {@link MappedFileInputStream} for larger files.
+     */
+    public static @NotNull MappedByteBuffer mapFile(@NotNull Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size > Integer.MAX_VALUE) throw new IOException(msgs.format("msg.err.io.file_too_large_to_map", path, size));
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    public static @NotNull MappedByteBuffer mapFile(@NotNull Path path, long position, long size) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) { return channel.map(FileChannel.MapMode.READ_ONLY, position, size); }
+    }
+
+    public static @NotNull MappedByteBuffer mapFile(@NotNull File file) throws IOException {
+        return mapFile(file.toPath());
+    }
+
     public static byte @NotNull [] readFile(@NotNull File file) throws IOException {
-        return readFile(new FileInputStream(file));
+        return Files.readAllBytes(file.toPath());
     }
 
     public static @NotNull String readFile(@NotNull File file, @NotNull Charset cs) throws IOException {
-        return readFile(new FileInputStream(file), cs);
+        return new String(Files.readAllBytes(file.toPath()), cs);
     }
 
     public static @NotNull String readFile(@NotNull Reader reader) throws IOException {
@@ -135,6 +211,26 @@ public final class IO {
         return readFile(new InputStreamReader(inputStream, cs));
     }
 
+    /**
+     * Returns the lines of a file as a lazily populated stream. The file is read through memory mappings ({@link MappedFileInputStream}) and decoded as the stream is consumed, so
+     * only a small window of the file is ever on the heap. The returned stream must be closed.
+     *
+     * @param path The file.
+     * @param cs   The character set of the file.
+     *
+     * @return The lines of the file.
+     *
+     * @throws IOException If the file could not be opened.
+     */
+    public static @NotNull Stream<String> readLines(@NotNull Path path, @NotNull Charset cs) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new MappedFileInputStream(path), cs));
+        return reader.lines().onClose(() -> closeQuietly(reader));
+    }
+
+    public static @NotNull Stream<String> readLines(@NotNull File file, @NotNull Charset cs) throws IOException {
+        return readLines(file.toPath(), cs);
+    }
+
     public static long translate(@NotNull InputStream inputStream,
                                  @NotNull Charset csInput,
                                  @NotNull OutputStream outputStream,
@@ -154,4 +250,38 @@ public final class IO {
     public static long translate(@NotNull Reader reader, @NotNull OutputStream outputStream, @NotNull Charset csOutput) throws IOException {
         return translate(reader, outputStream, csOutput, true);
     }
+
+    private static boolean hasKnownSize(@NotNull FileChannel channel) {
+        try { return ((channel.size() > 0) && (channel.position() >= 0)); } catch(IOException e) { return false; }
+    }
+
+    /**
+     * Transfers everything from the current position of the source channel to its end and leaves the source channel's position at the end. The bytes the channel reports as
+     * its size are sent with {@link FileChannel#transferTo(long, long, WritableByteChannel)}. After that the channel is read until end-of-stream, so channels whose size is not
+     * known in advance (pipes, FIFOs, <code>/dev/stdin</code>) are copied completely too.
+     */
+    private static long transfer(@NotNull FileChannel src, @NotNull WritableByteChannel dst) throws IOException {
+        long total = 0;
+
+        if(hasKnownSize(src)) {
+            long pos  = src.position();
+            long size = src.size();
+            while(pos < size) {
+                long cc = src.transferTo(pos, (size - pos), dst);
+                if(cc > 0) { pos += cc; total += cc; }
+                else if(pos >= src.size()) break;
+                else Thread.yield(); // The destination is non-blocking and not ready yet.
+            }
+            src.position(pos);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(props.getInt("default.read_buffer_size"));
+        while(src.read(buffer) >= 0) {
+            buffer.flip();
+            total += buffer.remaining();
+            while(buffer.hasRemaining()) if(dst.write(buffer) == 0) Thread.yield();
+            buffer.clear();
+        }
+        return total;
+    }
 }
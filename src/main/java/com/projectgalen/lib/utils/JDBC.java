@@ -17,11 +17,17 @@ package com.projectgalen.lib.utils;
 // NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
 // ================================================================================================================================
 
+import com.projectgalen.lib.utils.delegates.ThrowingConsumer;
+import com.projectgalen.lib.utils.delegates.ThrowingFunction;
 import com.projectgalen.lib.utils.delegates.ThrowingQuadConsumer;
 import com.projectgalen.lib.utils.delegates.ThrowingTriConsumer;
 import com.projectgalen.lib.utils.delegates.ThrowingTriFunction;
 import com.projectgalen.lib.utils.errors.SQLRuntimeException;
 import com.projectgalen.lib.utils.io.ReaderInputStream;
+import com.projectgalen.lib.utils.jdbc.BatchStatement;
+import com.projectgalen.lib.utils.jdbc.CachedParameterMetaData;
+import com.projectgalen.lib.utils.jdbc.ResultRow;
+import com.projectgalen.lib.utils.jdbc.ResultSetBatchSpliterator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -31,9 +37,12 @@ import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.Date;
 import java.util.*;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -41,14 +50,144 @@ import static java.sql.Types.*;
 
 public final class JDBC {
 
-    private static final ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> DEFAULT_OTHER_HANDLER = (s, m, i, o) -> s.setObject(i, o, m.getParameterType(i));
-    private static final Charset                                                                                   DEFAULT_CHARSET       = StandardCharsets.UTF_8;
+    public static final  ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> DEFAULT_OTHER_HANDLER = (s, m, i, o) -> s.setObject(i, o, m.getParameterType(i));
+    public static final  Charset                                                                                   DEFAULT_CHARSET       = StandardCharsets.UTF_8;
+    private static final ObjCache                                                                                  PARAM_META_DATA       = new ObjCache(256);
+    private static final Map<Connection, String>                                                                   CONNECTION_KEYS       = Collections.synchronizedMap(new WeakHashMap<>());
 
     private JDBC() { }
 
+    /**
+     * Binds the given values to the parameters of a prepared statement using the given parameter metadata rather than asking the statement for it.
+     *
+     * @param stmt         The prepared statement.
+     * @param metaData     The parameter metadata. Usually a cached copy from {@link #getParameterMetaData(String, PreparedStatement)}.
+     * @param cs           The character set used to convert between bytes and characters.
+     * @param otherHandler Binds values for parameter types that are not handled directly.
+     * @param params       The parameter values.
+     *
+     * @return The streams created for {@link Path} and {@link File} values bound to binary or LOB parameters. A file is only opened when the driver starts reading it and is
+     *     closed again once it has been read, but the caller should still close these streams after the statement has been executed in case the driver stopped early.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public static @NotNull List<Closeable> bindParameters(@NotNull PreparedStatement stmt,
+                                                          @NotNull ParameterMetaData metaData,
+                                                          @NotNull Charset cs,
+                                                          @NotNull ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> otherHandler,
+                                                          Object @NotNull ... params) throws SQLException {
+        List<Closeable> opened = new ArrayList<>(0);
+        bind(stmt, metaData, cs, otherHandler, opened, params);
+        return opened;
+    }
+
+    /**
+     * Executes the given SQL once for every row of parameters, sending the rows to the database in batches of <code>batchSize</code>.
+     *
+     * @param conn      The database connection.
+     * @param sql       The SQL to execute.
+     * @param batchSize The number of rows per batch.
+     * @param rows      The rows of parameter values.
+     *
+     * @return The update counts of each batch, in order.
+     *
+     * @throws SQLException If a database error occurs.
+     * @see BatchStatement
+     */
+    public static @NotNull List<int[]> executeBatch(@NotNull Connection conn, @NotNull String sql, int batchSize, @NotNull Iterable<Object[]> rows) throws SQLException {
+        try(BatchStatement batch = new BatchStatement(conn, sql, batchSize)) {
+            for(Object[] row : rows) batch.addRow(row);
+            batch.flush();
+            return batch.getBatchCounts();
+        }
+    }
+
+    /**
+     * Streams the rows of a result set to the given consumer in chunks. Each row is first mapped by <code>mapper</code>, which is given a reusable {@link ResultRow} view, and each
+     * chunk is handed to <code>consumer</code> as soon as it is full so that no more than <code>chunkSize</code> rows are ever held in memory.
+     *
+     * @param resultSet The result set.
+     * @param chunkSize The number of rows per chunk. Also used as the fetch size hint.
+     * @param mapper    Maps the current row to the value kept in the chunk.
+     * @param consumer  Receives each chunk. The list is reused so the consumer must not keep it.
+     * @param <R>       The type of the mapped rows.
+     *
+     * @return The number of rows read.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public static <R> long forEachChunk(@NotNull ResultSet resultSet,
+                                        int chunkSize,
+                                        @NotNull ThrowingFunction<ResultRow, R, SQLException> mapper,
+                                        @NotNull ThrowingConsumer<List<R>, SQLException> consumer) throws SQLException {
+        int       size  = Math.max(1, chunkSize);
+        List<R>   chunk = new ArrayList<>(size);
+        ResultRow row   = resultRow(resultSet, size);
+
+        while(row.next()) {
+            chunk.add(mapper.apply(row));
+            if(chunk.size() == size) {
+                consumer.accept(chunk);
+                chunk.clear();
+            }
+        }
+
+        if(!chunk.isEmpty()) consumer.accept(chunk);
+        return row.getRowNumber();
+    }
+
+    public static long forEachChunk(@NotNull ResultSet resultSet, int chunkSize, @NotNull ThrowingConsumer<List<Object[]>, SQLException> consumer) throws SQLException {
+        return forEachChunk(resultSet, chunkSize, ResultRow::toArray, consumer);
+    }
+
+    /**
+     * Streams the rows of a result set to the given consumer one at a time. The consumer is given the same reusable {@link ResultRow} view for every row so nothing is
+     * accumulated in memory.
+     *
+     * @param resultSet The result set.
+     * @param fetchSize The fetch size hint for the driver or zero to leave it alone.
+     * @param consumer  Receives each row.
+     *
+     * @return The number of rows read.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public static long forEachRow(@NotNull ResultSet resultSet, int fetchSize, @NotNull ThrowingConsumer<ResultRow, SQLException> consumer) throws SQLException {
+        ResultRow row = resultRow(resultSet, fetchSize);
+        while(row.next()) consumer.accept(row);
+        return row.getRowNumber();
+    }
+
+    public static long forEachRow(@NotNull ResultSet resultSet, @NotNull ThrowingConsumer<ResultRow, SQLException> consumer) throws SQLException {
+        return forEachRow(resultSet, 0, consumer);
+    }
+
+    /**
+     * Returns the parameter metadata for the given SQL. The metadata is read from the statement the first time the SQL is seen for a given database URL, user, catalog and
+     * schema, and a cached copy is returned after that. The URL, user, catalog and schema are read once per connection, since some drivers ask the server for the schema every
+     * time, and remembered until the connection is garbage collected. A later change to the connection's catalog or schema is therefore not noticed.
+     *
+     * @param sql  The SQL the statement was prepared from.
+     * @param stmt The prepared statement.
+     *
+     * @return The parameter metadata.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public static @NotNull ParameterMetaData getParameterMetaData(@NotNull String sql, @NotNull PreparedStatement stmt) throws SQLException {
+        String                  key = (connectionKey(stmt.getConnection()) + '\n' + sql);
+        CachedParameterMetaData md  = PARAM_META_DATA.get(key, CachedParameterMetaData.class);
+
+        if(md == null) {
+            md = new CachedParameterMetaData(stmt.getParameterMetaData()).forStatement(null);
+            PARAM_META_DATA.store(key, md);
+        }
+        return md.forStatement(stmt);
+    }
+
     public static @NotNull List<Object[]> getResults(@NotNull ResultSet resultSet) throws SQLException {
         List<Object[]> list = new ArrayList<>();
-        while(resultSet.next()) list.add(getRow(resultSet));
+        forEachRow(resultSet, row -> list.add(row.toArray()));
         return list;
     }
 
@@ -66,20 +205,27 @@ public final class JDBC {
     public static @NotNull PreparedStatement prepStmt(@NotNull PreparedStatement stmt,
                                                       @NotNull ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> otherHandler,
                                                       Object @NotNull ... params) throws SQLRuntimeException {
-        return prepStmt(stmt, DEFAULT_CHARSET, params);
+        return prepStmt(stmt, DEFAULT_CHARSET, otherHandler, params);
     }
 
     public static @NotNull PreparedStatement prepStmt(@NotNull PreparedStatement stmt, Charset cs, Object @NotNull ... params) {
         return prepStmt(stmt, cs, DEFAULT_OTHER_HANDLER, params);
     }
 
+    /**
+     * Binds the given values to the parameters of a prepared statement. A {@link Path} or {@link File} value is bound by its <code>toString()</code> value. Use
+     * {@link #bindParameters(PreparedStatement, ParameterMetaData, Charset, ThrowingQuadConsumer, Object...)} to send the contents of files instead.
+     *
+     * @return The statement.
+     *
+     * @throws SQLRuntimeException If a database error occurs.
+     */
     public static @NotNull PreparedStatement prepStmt(@NotNull PreparedStatement stmt,
                                                       Charset cs,
                                                       @NotNull ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> otherHandler,
                                                       Object @NotNull ... params) {
         return SQLRuntimeException.get(() -> {
-            ParameterMetaData md = stmt.getParameterMetaData();
-            for(int idx = 1, j = 0; idx <= params.length; ++idx) setValue(stmt, md, idx, params[j++], cs, otherHandler);
+            bind(stmt, stmt.getParameterMetaData(), cs, otherHandler, null, params);
             return stmt;
         });
     }
@@ -88,6 +234,62 @@ public final class JDBC {
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new ResultSetIterator<>(rs, function), Spliterator.IMMUTABLE | Spliterator.ORDERED), false);
     }
 
+    public static @NotNull Stream<Object[]> streamResultSet(@NotNull ResultSet rs, int batchSize, boolean ordered) {
+        return streamResultSet(rs, batchSize, ordered, ResultRow::toArray);
+    }
+
+    public static <T> @NotNull Stream<T> streamResultSet(@NotNull ResultSet rs, int batchSize, boolean ordered, @NotNull ThrowingFunction<ResultRow, T, SQLException> extractor) {
+        return streamResultSet(rs, batchSize, (Runtime.getRuntime().availableProcessors() * 2), ordered, null, extractor);
+    }
+
+    /**
+     * Returns a parallel stream over the rows of a result set. The result set is read by a single producer, which extracts each row with <code>extractor</code> and hands the rows
+     * to the stream in batches of <code>batchSize</code>. Expensive work should be done in the later stages of the stream, which run in parallel, rather than in the extractor.
+     * Close the stream to stop the producer early.
+     *
+     * @param rs         The result set.
+     * @param batchSize  The number of rows per batch.
+     * @param maxBatches The maximum number of batches the producer reads ahead of the stream.
+     * @param ordered    If <code>true</code> the stream keeps the order of the result set. Otherwise batches can be processed in any order.
+     * @param executor   The executor that runs the producer or <code>null</code> to start a new daemon thread for it.
+     * @param extractor  Extracts the value of the current row. It must not keep the row it is given.
+     * @param <T>        The type of the extracted rows.
+     *
+     * @return The parallel stream.
+     * @see ResultSetBatchSpliterator
+     */
+    public static <T> @NotNull Stream<T> streamResultSet(@NotNull ResultSet rs,
+                                                         int batchSize,
+                                                         int maxBatches,
+                                                         boolean ordered,
+                                                         @Nullable Executor executor,
+                                                         @NotNull ThrowingFunction<ResultRow, T, SQLException> extractor) {
+        ResultSetBatchSpliterator<T> spliterator = new ResultSetBatchSpliterator<>(rs, batchSize, maxBatches, ordered, executor, extractor);
+        return StreamSupport.stream(spliterator, true).onClose(spliterator::close);
+    }
+
+    /*
+     * With no list to hand the opened files back in, as from prepStmt, a Path or File is bound by its toString() value for every parameter type, the same as before files were
+     * streamed, so that nothing is left open that the caller doesn't know about.
+     */
+    private static void bind(@NotNull PreparedStatement stmt,
+                             @NotNull ParameterMetaData metaData,
+                             @NotNull Charset cs,
+                             @NotNull ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> otherHandler,
+                             @Nullable List<Closeable> opened,
+                             Object @NotNull ... params) throws SQLException {
+        for(int idx = 1, j = 0; idx <= params.length; ++idx) setValue(stmt, metaData, idx, params[j++], cs, otherHandler, opened);
+    }
+
+    private static @NotNull String connectionKey(@NotNull Connection conn) throws SQLException {
+        String key = CONNECTION_KEYS.get(conn);
+        if(key == null) {
+            key = readConnectionKey(conn);
+            CONNECTION_KEYS.put(conn, key);
+        }
+        return key;
+    }
+
     private static @NotNull BigDecimal getBigDecimal(Number number) {
         return ((number instanceof BigDecimal d) ? d : (((number instanceof BigInteger i) ? new BigDecimal(i) : BigDecimal.valueOf(number.doubleValue()))));
     }
@@ -96,28 +298,107 @@ public final class JDBC {
         return number instanceof BigDecimal d ? (d.setScale(0, RoundingMode.HALF_UP)) : (new BigDecimal(((number instanceof BigInteger i) ? i : BigInteger.valueOf(number.longValue()))));
     }
 
-    private static byte @NotNull [] getBytes(Object p, Charset cs) {
-        return ((p instanceof byte[] b) ? (b) : ((p instanceof char[] c) ? String.valueOf(c) : p.toString()).getBytes(cs));
-    }
+    private static long getByteLength(Object p) throws SQLException {/*@f0*/
+        return ((p instanceof byte[] b)     ? b.length               :
+                ((p instanceof Blob b)      ? b.length()             :
+                                              -1));
+    }/*@f1*/
+
+    private static long getCharLength(Object p) throws SQLException {/*@f0*/
+        return ((p instanceof char[] c)          ? c.length   :
+                ((p instanceof Clob c)           ? c.length() :
+                 ((p instanceof CharSequence c)  ? c.length() :
+                                                   -1)));
+    }/*@f1*/
 
-    private static @NotNull InputStream getInputStream(Object p, Charset cs) {/*@f0*/
-        return ((p instanceof InputStream inputStream) ? inputStream                             :
-                ((p instanceof Reader reader)          ? new ReaderInputStream(reader, true, cs) :
-                                                         new ByteArrayInputStream(getBytes(p, cs))));
+    /*
+     * Neither of these two ever copies the whole value into an intermediate array. Characters that have to become bytes, or bytes that have to become characters, are
+     * converted a buffer at a time as the driver reads them.
+     */
+    private static @NotNull InputStream getInputStream(Object p, Charset cs) throws SQLException {/*@f0*/
+        return ((p instanceof InputStream inputStream) ? inputStream                                           :
+                ((p instanceof byte[] b)               ? new ByteArrayInputStream(b)                           :
+                 ((p instanceof Blob b)                ? b.getBinaryStream()                                   :
+                                                         new ReaderInputStream(getReader(p, cs), true, cs))));
     }/*@f1*/
 
-    private static @NotNull Reader getReader(Object p, Charset cs) {/*@f0*/
+    private static @NotNull Reader getReader(Object p, Charset cs) throws SQLException {/*@f0*/
         return ((p instanceof Reader reader)   ? reader                                                  :
                 ((p instanceof InputStream is) ? new InputStreamReader(is, cs)                           :
                  ((p instanceof char[] cb)     ? new CharArrayReader(cb)                                 :
                   ((p instanceof byte[] bb)    ? new InputStreamReader(new ByteArrayInputStream(bb), cs) :
-                                                 new StringReader(p.toString())))));
+                   ((p instanceof Clob c)      ? c.getCharacterStream()                                  :
+                    ((p instanceof Blob b)     ? new InputStreamReader(b.getBinaryStream(), cs)          :
+                                                 new StringReader(p.toString())))))));
     }/*@f1*/
 
     private static @NotNull String getString(Object p, Charset cs) {
         return (p instanceof char[] a) ? String.valueOf(a) : ((p instanceof byte[] a) ? new String(a, cs) : p.toString());
     }
 
+    private static @NotNull String readConnectionKey(@NotNull Connection conn) throws SQLException {
+        String user;
+        String catalog;
+        String schema;
+        try { user = conn.getMetaData().getUserName(); } catch(SQLException | AbstractMethodError e) { user = ""; }
+        try { catalog = conn.getCatalog(); } catch(SQLException | AbstractMethodError e) { catalog = ""; }
+        try { schema = conn.getSchema(); } catch(SQLException | AbstractMethodError e) { schema = ""; }
+        return String.join("\n", conn.getMetaData().getURL(), String.valueOf(user), String.valueOf(catalog), String.valueOf(schema));
+    }
+
+    private static @NotNull ResultRow resultRow(@NotNull ResultSet resultSet, int fetchSize) throws SQLException {
+        if(fetchSize > 0) resultSet.setFetchSize(fetchSize);
+        return new ResultRow(resultSet);
+    }
+
+    /*
+     * Only binary and LOB parameters read the contents of a file. Everywhere else a Path or File is bound by its toString() value like any other object.
+     */
+    private static @Nullable FileParameterStream openFile(Object p, @NotNull List<Closeable> opened) throws SQLException {
+        Path path = ((p instanceof Path f) ? f : ((p instanceof File f) ? f.toPath() : null));
+        if(path == null) return null;
+        try {
+            FileParameterStream stream = new FileParameterStream(path, Files.size(path));
+            opened.add(stream);
+            return stream;
+        }
+        catch(IOException e) { throw new SQLException(e); }
+    }
+
+    private static void setBinary(PreparedStatement stmt,
+                                  int idx,
+                                  Object p,
+                                  Charset cs,
+                                  @Nullable List<Closeable> opened,
+                                  ThrowingTriConsumer<PreparedStatement, Integer, InputStream, SQLException> unknownLength,
+                                  ThrowingQuadConsumer<PreparedStatement, Integer, InputStream, Long, SQLException> knownLength) throws SQLException {
+        FileParameterStream file = ((opened == null) ? null : openFile(p, opened));
+        if(file != null) {
+            knownLength.accept(stmt, idx, file, file.length);
+            return;
+        }
+        long len = getByteLength(p);
+        if(len < 0) unknownLength.accept(stmt, idx, getInputStream(p, cs));
+        else knownLength.accept(stmt, idx, getInputStream(p, cs), len);
+    }
+
+    private static void setCharacters(PreparedStatement stmt,
+                                      int idx,
+                                      Object p,
+                                      Charset cs,
+                                      @Nullable List<Closeable> opened,
+                                      ThrowingTriConsumer<PreparedStatement, Integer, Reader, SQLException> unknownLength,
+                                      ThrowingQuadConsumer<PreparedStatement, Integer, Reader, Long, SQLException> knownLength) throws SQLException {
+        FileParameterStream file = ((opened == null) ? null : openFile(p, opened));
+        if(file != null) {
+            unknownLength.accept(stmt, idx, new InputStreamReader(file, cs));
+            return;
+        }
+        long len = getCharLength(p);
+        if(len < 0) unknownLength.accept(stmt, idx, getReader(p, cs));
+        else knownLength.accept(stmt, idx, getReader(p, cs), len);
+    }
+
     private static void setDate(PreparedStatement stmt, int idx, Object p, Charset cs, ThrowingTriConsumer<PreparedStatement, Integer, Date, SQLException> consumer) throws SQLException {
         if(p instanceof Date date) consumer.accept(stmt, idx, date);
         else if(p instanceof Calendar cal) consumer.accept(stmt, idx, cal.getTime());
@@ -134,15 +415,16 @@ public final class JDBC {
                                  int parameterIndex,
                                  @Nullable Object obj,
                                  @NotNull Charset charset,
-                                 @NotNull ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> otherHandler) throws SQLException {
+                                 @NotNull ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> otherHandler,
+                                 @Nullable List<Closeable> opened) throws SQLException {
         if(obj == null) {
             preparedStatement.setNull(parameterIndex, parameterMetaData.getParameterType(parameterIndex));
         }
         else switch(parameterMetaData.getParameterType(parameterIndex)) {/*@f0*/
-            case CHAR,  VARCHAR,  LONGVARCHAR       -> preparedStatement.setCharacterStream( parameterIndex, getReader(obj, charset));
-            case NCHAR, NVARCHAR, LONGNVARCHAR      -> preparedStatement.setNCharacterStream(parameterIndex, getReader(obj, charset));
-            case CLOB                               -> preparedStatement.setClob(            parameterIndex, getReader(obj, charset));
-            case NCLOB                              -> preparedStatement.setNClob(           parameterIndex, getReader(obj, charset));
+            case CHAR,  VARCHAR,  LONGVARCHAR       -> setCharacters(preparedStatement, parameterIndex, obj, charset, null,   PreparedStatement::setCharacterStream,  PreparedStatement::setCharacterStream );
+            case NCHAR, NVARCHAR, LONGNVARCHAR      -> setCharacters(preparedStatement, parameterIndex, obj, charset, null,   PreparedStatement::setNCharacterStream, PreparedStatement::setNCharacterStream);
+            case CLOB                               -> setCharacters(preparedStatement, parameterIndex, obj, charset, opened, PreparedStatement::setClob,             PreparedStatement::setClob            );
+            case NCLOB                              -> setCharacters(preparedStatement, parameterIndex, obj, charset, opened, PreparedStatement::setNClob,            PreparedStatement::setNClob           );
             case BIGINT                             -> setNumber(preparedStatement, parameterIndex, obj, charset, (s, i, n) -> s.setBigDecimal(i, getBigInteger(n)              ));
             case DECIMAL, NUMERIC                   -> setNumber(preparedStatement, parameterIndex, obj, charset, (s, i, n) -> s.setBigDecimal(i, getBigDecimal(n)              ));
             case DOUBLE,  REAL                      -> setNumber(preparedStatement, parameterIndex, obj, charset, (s, i, n) -> s.setDouble(    i, n.doubleValue()               ));
@@ -153,11 +435,56 @@ public final class JDBC {
             case DATE                               -> setDate(  preparedStatement, parameterIndex, obj, charset, (s, i, d) -> s.setDate(      i, new java.sql.Date(d.getTime())));
             case TIME,      TIME_WITH_TIMEZONE      -> setDate(  preparedStatement, parameterIndex, obj, charset, (s, i, d) -> s.setTime(      i, new Time(         d.getTime())));
             case TIMESTAMP, TIMESTAMP_WITH_TIMEZONE -> setDate(  preparedStatement, parameterIndex, obj, charset, (s, i, d) -> s.setTimestamp( i, new Timestamp(    d.getTime())));
-            case BINARY, VARBINARY, LONGVARBINARY   -> preparedStatement.setBinaryStream(parameterIndex, getInputStream(obj, charset));
+            case BINARY, VARBINARY, LONGVARBINARY   -> setBinary(    preparedStatement, parameterIndex, obj, charset, opened, PreparedStatement::setBinaryStream,     PreparedStatement::setBinaryStream    );
+            case BLOB                               -> setBinary(    preparedStatement, parameterIndex, obj, charset, opened, PreparedStatement::setBlob,             PreparedStatement::setBlob            );
             default                                 -> otherHandler.accept(preparedStatement, parameterMetaData, parameterIndex, obj);
         }/*@f1*/
     }
 
+    /*
+     * Opens the file on the first read instead of when the parameter is bound and closes it as soon as the length given to the driver has been read. That way a statement that
+     * is never executed doesn't hold the file open and one that is executed doesn't have to wait for the caller to close it.
+     */
+    private static final class FileParameterStream extends InputStream {
+        private final @NotNull Path        path;
+        private final          long        length;
+        private                InputStream in     = null;
+        private                long        count  = 0;
+        private                boolean     closed = false;
+
+        public FileParameterStream(@NotNull Path path, long length) {
+            this.path   = path;
+            this.length = length;
+        }
+
+        public @Override void close() throws IOException {
+            closed = true;
+            if(in != null) {
+                InputStream stream = in;
+                in = null;
+                stream.close();
+            }
+        }
+
+        public @Override int read() throws IOException {
+            byte[] b = new byte[1];
+            return ((read(b, 0, 1) < 0) ? -1 : (b[0] & 0xff));
+        }
+
+        public @Override int read(byte @NotNull [] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if(len == 0) return 0;
+            if(closed || (count >= length)) {
+                close();
+                return -1;
+            }
+            if(in == null) in = Files.newInputStream(path);
+            int cc = in.read(b, off, (int)Math.min(len, (length - count)));
+            if((cc < 0) || ((count += cc) >= length)) close();
+            return cc;
+        }
+    }
+
     private static final class ResultSetIterator<R> implements Iterator<R> {
         private final @NotNull ResultSet                                                                _resultSet;
         private final @NotNull ResultSetMetaData                                                        _metaData;
@@ -20,48 +20,311 @@ package com.projectgalen.lib.utils;
 // IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
 // ===========================================================================
 
-import com.projectgalen.lib.utils.concurrency.Locks;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.concurrent.locks.Lock;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
+/**
+ * A concurrent object cache. Reads never take a lock. The cache can optionally be bounded by a maximum number of entries and entries can optionally expire a fixed amount of time
+ * after they were written (time-to-live) or last read (idle time).
+ * <p>
+ * When the cache is bounded the victim is chosen with a CLOCK (second chance) approximation of LRU. If the {@link EvictionPolicy#TINY_LFU} policy is selected then a newly added
+ * entry must also be used more often than the victim, according to a small frequency sketch, in order to be admitted.
+ */
 @SuppressWarnings({ "UnusedReturnValue", "unused", "unchecked" })
 public class ObjCache {
 
-    private final Map<String, Object> cache = new TreeMap<>();
-    private final Lock                lock  = new ReentrantLock(true);
+    public enum EvictionPolicy { LRU, TINY_LFU }
+
+    public static final int UNBOUNDED = -1;
+
+    private final Map<String, Node> cache     = new ConcurrentHashMap<>();
+    private final Queue<Node>       clock     = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock     evictLock = new ReentrantLock();
+    private final LongAdder         hits      = new LongAdder();
+    private final LongAdder         misses    = new LongAdder();
+    private final LongAdder         evictions = new LongAdder();
+    private final AtomicInteger     clockSize = new AtomicInteger();
+    private final int               maxSize;
+    private final long              ttlNanos;
+    private final long              idleNanos;
+    private final EvictionPolicy    policy;
+    private final FrequencySketch   sketch;
 
     public ObjCache() {
+        this(UNBOUNDED, 0, 0, TimeUnit.NANOSECONDS, EvictionPolicy.LRU);
+    }
+
+    public ObjCache(int maxSize) {
+        this(maxSize, 0, 0, TimeUnit.NANOSECONDS, EvictionPolicy.LRU);
+    }
+
+    public ObjCache(int maxSize, @NotNull EvictionPolicy policy) {
+        this(maxSize, 0, 0, TimeUnit.NANOSECONDS, policy);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize     The maximum number of entries or {@link #UNBOUNDED}.
+     * @param timeToLive  The amount of time an entry lives after it was stored or zero if entries never expire.
+     * @param maxIdleTime The amount of time an entry lives after it was last read or zero if entries never go idle.
+     * @param unit        The time unit of <code>timeToLive</code> and <code>maxIdleTime</code>.
+     * @param policy      The eviction policy used when the cache is bounded.
+     */
+    public ObjCache(int maxSize, long timeToLive, long maxIdleTime, @NotNull TimeUnit unit, @NotNull EvictionPolicy policy) {
         super();
+        this.maxSize   = ((maxSize < 0) ? UNBOUNDED : Math.max(1, maxSize));
+        this.ttlNanos  = Math.max(0, unit.toNanos(timeToLive));
+        this.idleNanos = Math.max(0, unit.toNanos(maxIdleTime));
+        this.policy    = policy;
+        this.sketch    = (((policy == EvictionPolicy.TINY_LFU) && (this.maxSize != UNBOUNDED)) ? new FrequencySketch(this.maxSize) : null);
+    }
+
+    public void cleanUp() {
+        long now = now();
+        for(Node node : cache.values()) if(node.isExpired(now, ttlNanos, idleNanos) && cache.remove(node.key, node)) evictions.increment();
+    }
+
+    public void clear() {
+        cache.clear();
+        clock.clear();
+        clockSize.set(0);
+    }
+
+    public <T> T computeIfAbsent(@NotNull String key, @NotNull Class<T> cls, @NotNull Function<String, ? extends T> mappingFunction) {
+        Node node = getNode(key);
+        if(node != null) return cls.cast(node.value);
+
+        long      now     = now();
+        boolean[] created = { false };
+        Node      found   = cache.compute(key, (k, n) -> {
+            if((n != null) && !n.isExpired(now, ttlNanos, idleNanos)) return n;
+            T value = mappingFunction.apply(k);
+            created[0] = (value != null);
+            return (created[0] ? new Node(k, value, now) : null);
+        });
+
+        if(found == null) return null;
+        if(created[0]) afterAdd(found);
+        return cls.cast(found.value);
     }
 
     public <T> T get(@NotNull String key, @NotNull Class<T> cls) {
-        return Locks.getWithLock(lock, () -> cls.cast(cache.get(key)));
+        return cls.cast(get(key));
     }
 
     public Object get(@NotNull String key) {
-        return Locks.getWithLock(lock, () -> cache.get(key));
+        Node node = getNode(key);
+        return ((node == null) ? null : node.value);
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long t = (h + misses.sum());
+        return ((t == 0) ? 1.0 : (((double)h) / t));
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public @NotNull EvictionPolicy getPolicy() {
+        return policy;
     }
 
     public <T> T remove(@NotNull String key, @NotNull Class<T> cls) {
-        return Locks.getWithLock(lock, () -> cls.cast(cache.remove(key)));
+        return cls.cast(remove(key));
     }
 
     public Object remove(@NotNull String key) {
-        return Locks.getWithLock(lock, () -> cache.remove(key));
+        Node node = cache.remove(key);
+        return ((node == null) ? null : node.value);
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public int size() {
+        return cache.size();
     }
 
     public <T> T store(@NotNull String key, @NotNull T obj) {
-        return Locks.getWithLock(lock, () -> ((Class<T>)obj.getClass()).cast(cache.put(key, obj)));
+        Node node = new Node(key, obj, now());
+        Node old  = cache.put(key, node);
+        afterAdd(node);
+        return ((old == null) ? null : ((Class<T>)obj.getClass()).cast(old.value));
+    }
+
+    private void afterAdd(@NotNull Node node) {
+        if(maxSize == UNBOUNDED) return;
+        if(sketch != null) sketch.increment(node.key);
+        clock.offer(node);
+        if((clockSize.incrementAndGet() > (maxSize * 2)) || (cache.size() > maxSize)) evict(node);
+    }
+
+    private void evict(@NotNull Node candidate) {
+        if(!evictLock.tryLock()) return;
+        try {
+            long now = now();
+            if(clockSize.get() > (maxSize * 2)) {
+                clock.removeIf(n -> (cache.get(n.key) != n));
+                clockSize.set(clock.size());
+            }
+            while(cache.size() > maxSize) {
+                Node victim = clock.poll();
+                if(victim == null) break;
+                clockSize.decrementAndGet();
+                if(cache.get(victim.key) != victim) continue;
+                if(!victim.isExpired(now, ttlNanos, idleNanos)) {
+                    if(victim.referenced) {
+                        victim.referenced = false;
+                        clock.offer(victim);
+                        clockSize.incrementAndGet();
+                        continue;
+                    }
+                    if((sketch != null) && (victim != candidate) && (cache.get(candidate.key) == candidate) && (sketch.frequency(candidate.key) < sketch.frequency(victim.key))) {
+                        clock.offer(victim);
+                        clockSize.incrementAndGet();
+                        victim = candidate;
+                    }
+                }
+                if(cache.remove(victim.key, victim)) evictions.increment();
+            }
+        }
+        finally {
+            evictLock.unlock();
+        }
+    }
+
+    private @Nullable Node getNode(@NotNull String key) {
+        Node node = cache.get(key);
+
+        if(node != null) {
+            if((ttlNanos == 0) && (idleNanos == 0)) return hit(node);
+            long now = now();
+            if(!node.isExpired(now, ttlNanos, idleNanos)) {
+                if(idleNanos != 0) node.lastAccess = now;
+                return hit(node);
+            }
+            if(cache.remove(key, node)) evictions.increment();
+        }
+
+        misses.increment();
+        if(sketch != null) sketch.increment(key);
+        return null;
+    }
+
+    private @NotNull Node hit(@NotNull Node node) {
+        hits.increment();
+        if(!node.referenced && (maxSize != UNBOUNDED)) node.referenced = true;
+        if(sketch != null) sketch.increment(node.key);
+        return node;
+    }
+
+    private long now() {
+        return (((ttlNanos == 0) && (idleNanos == 0)) ? 0 : System.nanoTime());
     }
 
     public static ObjCache getInstance() {
         return ObjCacheHolder.INSTANCE;
     }
 
+    private static final class Node {
+        private final    String  key;
+        private final    Object  value;
+        private final    long    stamp;
+        private volatile long    lastAccess;
+        private volatile boolean referenced;
+
+        public Node(@NotNull String key, Object value, long stamp) {
+            this.key        = key;
+            this.value      = value;
+            this.stamp      = stamp;
+            this.lastAccess = stamp;
+        }
+
+        public boolean isExpired(long now, long ttlNanos, long idleNanos) {
+            return (((ttlNanos != 0) && ((now - stamp) >= ttlNanos)) || ((idleNanos != 0) && ((now - lastAccess) >= idleNanos)));
+        }
+    }
+
+    /**
+     * A count-min sketch with four hash functions. Counters are halved once the number of increments reaches ten times the width so that old popularity fades. Updates are not
+     * atomic; the counts are estimates anyway.
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = { 0x97cb3127, 0xb7a8f5e1, 0x85ebca6b, 0xc2b2ae35 };
+
+        private final int[] table;
+        private final int   mask;
+        private final int   sampleSize;
+        private       int   additions;
+
+        public FrequencySketch(int maxSize) {
+            int width = Integer.highestOneBit(Math.max(16, Math.min(maxSize, (1 << 24))) * 2 - 1);
+            this.table      = new int[width * SEEDS.length];
+            this.mask       = (width - 1);
+            this.sampleSize = (width * 10);
+        }
+
+        public int frequency(@NotNull Object key) {
+            int h   = spread(key.hashCode());
+            int min = Integer.MAX_VALUE;
+            for(int i = 0; i < SEEDS.length; i++) min = Math.min(min, table[index(h, i)]);
+            return min;
+        }
+
+        public void increment(@NotNull Object key) {
+            int h = spread(key.hashCode());
+            for(int i = 0; i < SEEDS.length; i++) {
+                int idx = index(h, i);
+                if(table[idx] < 0xffff) table[idx]++;
+            }
+            if(++additions >= sampleSize) reset();
+        }
+
+        private int index(int h, int i) {
+            int x = ((h ^ SEEDS[i]) * 0x9e3779b9);
+            return ((i * (mask + 1)) + ((x ^ (x >>> 16)) & mask));
+        }
+
+        private void reset() {
+            additions = 0;
+            for(int i = 0; i < table.length; i++) table[i] >>>= 1;
+        }
+
+        private static int spread(int h) {
+            h ^= (h >>> 17);
+            h *= 0xed5ad4bb;
+            return (h ^ (h >>> 11));
+        }
+    }
+
     private static final class ObjCacheHolder {
         private static final ObjCache INSTANCE = new ObjCache();
     }
@@ -30,15 +30,31 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
+import java.net.URL;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
+/**
+ * An extension of {@link Properties} with macro expansion and typed getters.
+ * <p>
+ * Expanded values are cached per key together with the set of keys that were read while expanding them. Changing a property through {@link #setProperty(String, String)},
+ * {@link #load(Reader)}, {@link #put(Object, Object)} or any of the other mutators of this class only drops the cached values that depend on it. The parsed results of the
+ * typed getters ({@link #getInt(String, int)}, {@link #getList(String)}, {@link #getMap(String)}, etc.) are cached along with the expanded value. Lists and maps returned by
+ * those getters are therefore unmodifiable.
+ * <p>
+ * Changes made directly to the <code>defaults</code> object, or through the views returned by {@link #keySet()}, {@link #entrySet()} and {@link #values()}, are not tracked.
+ * Call {@link #clearCache()} after making changes that way.
+ */
 @SuppressWarnings("unused")
 public class PGProperties extends Properties {
 
-    private static final PGResourceBundle msgs  = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
-    private static final PGProperties     props = getXMLProperties("pg_properties.xml", PGProperties.class);
+    private static final PGResourceBundle msgs = PGResources.msgs();
 
     public static final @Language("RegExp") @RegExp String DEFAULT_LIST_SEPARATOR_PATTERN = "\\s*,\\s*";
     public static final @Language("RegExp") @RegExp String DEFAULT_MAP_KV_PATTERN         = "\\s*:\\s*";
@@ -47,6 +63,11 @@ public class PGProperties extends Properties {
     public static final                             String DEFAULT_DATETIME_FORMAT        = String.format("%s'T'%s", DEFAULT_DATE_FORMAT, DEFAULT_TIME_FORMAT);
     public static final                             int    DEFAULT_LIMIT                  = -1;
 
+    private static final Object INVALID = new Object();
+
+    private                    AtomicLong             version    = new AtomicLong();
+    private transient volatile Map<String, Expansion> expansions = null;
+
     public PGProperties() {
         super();
     }
@@ -55,17 +76,49 @@ public class PGProperties extends Properties {
         super(defaults);
     }
 
+    /**
+     * Discards all cached expansions and parsed values.
+     */
+    public void clearCache() {
+        version.incrementAndGet();
+        expansions().clear();
+    }
+
+    public @Override synchronized void clear() {
+        super.clear();
+        clearCache();
+    }
+
+    public @Override synchronized Object clone() {
+        PGProperties other = (PGProperties)super.clone();
+        other.version    = new AtomicLong();
+        other.expansions = null;
+        return other;
+    }
+
+    public @Override synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        try { return super.compute(key, remappingFunction); } finally { invalidate(key); }
+    }
+
+    public @Override synchronized Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
+        try { return super.computeIfAbsent(key, mappingFunction); } finally { invalidate(key); }
+    }
+
+    public @Override synchronized Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        try { return super.computeIfPresent(key, remappingFunction); } finally { invalidate(key); }
+    }
+
     public String format(@NotNull @NonNls String key, Object... args) {
         String fmt = getProperty(key);
         return ((fmt == null) ? null : String.format(fmt, args));
     }
 
     public boolean getBoolean(@NotNull @NonNls String key, boolean defaultBoolean) {
-        switch(getProperty(key, Boolean.toString(defaultBoolean)).trim()) {/*@f0*/
-            case "true":  return true;
-            case "false": return false;
-            default:      return defaultBoolean;
-        }/*@f1*/
+        return cached(key, Boolean.class, v -> switch(v.trim()) {/*@f0*/
+            case "true"  -> Boolean.TRUE;
+            case "false" -> Boolean.FALSE;
+            default      -> null;
+        }/*@f1*/, defaultBoolean);
     }
 
     public boolean getBoolean(@NotNull @NonNls String key) {
@@ -73,12 +126,7 @@ public class PGProperties extends Properties {
     }
 
     public byte getByte(@NotNull @NonNls String key, byte defaultValue) {
-        try {
-            return Byte.parseByte(prepForNumber(getProperty(key, String.valueOf(defaultValue))));
-        }
-        catch(Exception e) {
-            return defaultValue;
-        }
+        return cached(key, Byte.class, v -> Byte.parseByte(prepForNumber(v)), defaultValue);
     }
 
     public byte getByte(@NotNull @NonNls String key) {
@@ -87,10 +135,8 @@ public class PGProperties extends Properties {
 
     @Contract("_,_,!null -> !null")
     public Date getDateProperty(@NotNull @NonNls String key, @NotNull @NonNls String format, @Nullable Date defaultDate) {
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
-        String           val = getProperty(key);
-        if(val == null) return defaultDate;
-        try { return sdf.parse(val); } catch(Exception e) { return defaultDate; }
+        Date date = cached(key, "date\n" + format, v -> new SimpleDateFormat(format).parse(v, new ParsePosition(0)), null);
+        return ((date == null) ? defaultDate : (Date)date.clone());
     }
 
     @Contract("_,!null -> !null")
@@ -103,12 +149,7 @@ public class PGProperties extends Properties {
     }
 
     public double getDouble(@NotNull @NonNls String key, double defaultValue) {
-        try {
-            return Double.parseDouble(prepForNumber(getProperty(key, String.valueOf(defaultValue))));
-        }
-        catch(Exception e) {
-            return defaultValue;
-        }
+        return cached(key, Double.class, v -> Double.parseDouble(prepForNumber(v)), defaultValue);
     }
 
     public double getDouble(@NotNull @NonNls String key) {
@@ -116,12 +157,7 @@ public class PGProperties extends Properties {
     }
 
     public float getFloat(@NotNull @NonNls String key, float defaultValue) {
-        try {
-            return Float.parseFloat(prepForNumber(getProperty(key, String.valueOf(defaultValue))));
-        }
-        catch(Exception e) {
-            return defaultValue;
-        }
+        return cached(key, Float.class, v -> Float.parseFloat(prepForNumber(v)), defaultValue);
     }
 
     public float getFloat(@NotNull @NonNls String key) {
@@ -129,12 +165,7 @@ public class PGProperties extends Properties {
     }
 
     public int getInt(@NotNull @NonNls String key, int defaultValue) {
-        try {
-            return Integer.parseInt(prepForNumber(getProperty(key, String.valueOf(defaultValue))));
-        }
-        catch(Exception e) {
-            return defaultValue;
-        }
+        return cached(key, Integer.class, v -> Integer.parseInt(prepForNumber(v)), defaultValue);
     }
 
     public int getInt(@NotNull @NonNls String key) {
@@ -143,10 +174,9 @@ public class PGProperties extends Properties {
 
     @Contract("_,_,_,!null -> !null")
     public List<String> getList(@NotNull @NonNls String key, @Nullable @Language("RegExp") String separatorPattern, int limit, @Nullable List<String> defaultList) {
-        String str = getProperty(key);
-        if(str == null) return ((defaultList == null) ? Collections.emptyList() : defaultList);
-        String[] arr = str.trim().split(Objects.requireNonNullElse(separatorPattern, DEFAULT_LIST_SEPARATOR_PATTERN), limit);
-        return Arrays.asList(arr);
+        String       sep  = Objects.requireNonNullElse(separatorPattern, DEFAULT_LIST_SEPARATOR_PATTERN);
+        List<String> list = cached(key, "list\n" + limit + "\n" + sep, v -> Collections.unmodifiableList(Arrays.asList(v.trim().split(sep, limit))), null);
+        return ((list != null) ? list : ((defaultList == null) ? Collections.emptyList() : defaultList));
     }
 
     @Contract("_,_,!null -> !null")
@@ -173,12 +203,7 @@ public class PGProperties extends Properties {
     }
 
     public long getLong(@NotNull @NonNls String key, long defaultValue) {
-        try {
-            return Long.parseLong(prepForNumber(getProperty(key, String.valueOf(defaultValue))));
-        }
-        catch(Exception e) {
-            return defaultValue;
-        }
+        return cached(key, Long.class, v -> Long.parseLong(prepForNumber(v)), defaultValue);
     }
 
     public long getLong(@NotNull @NonNls String key) {
@@ -190,16 +215,16 @@ public class PGProperties extends Properties {
                                       @NotNull @NonNls @Language("RegExp") String listSepPat,
                                       @NotNull @NonNls @Language("RegExp") String kvSepPat,
                                       @Nullable Map<String, String> defaultMap) {
-        List<String> list = getList(key, listSepPat, 0, null);
-        if(list == null) return defaultMap;
-
-        Map<String, String> map = new LinkedHashMap<>();
-        for(String kv : list) {
-            String[] arKv = kv.split(kvSepPat, 2);
-            if(arKv.length != 2) throw new InvalidPropertyKeyValuePair(msgs.format("msg.err.macro.kv_pair_missing_value", kv));
-            map.put(arKv[0], arKv[1]);
-        }
-        return map;
+        Map<String, String> map = cached(key, "map\n" + listSepPat + "\n" + kvSepPat, v -> {
+            Map<String, String> m = new LinkedHashMap<>();
+            for(String kv : v.trim().split(listSepPat, 0)) {
+                String[] arKv = kv.split(kvSepPat, 2);
+                if(arKv.length != 2) throw new InvalidPropertyKeyValuePair(msgs.format("msg.err.macro.kv_pair_missing_value", kv));
+                m.put(arKv[0], arKv[1]);
+            }
+            return Collections.unmodifiableMap(m);
+        }, null);
+        return ((map == null) ? defaultMap : map);
     }
 
     public @NotNull Map<String, String> getMap(@NotNull @NonNls String key, @NotNull @NonNls @Language("RegExp") String listSepPat, @NotNull @NonNls @Language("RegExp") String kvSepPat) {
@@ -227,21 +252,56 @@ public class PGProperties extends Properties {
 
     @Contract("_,!null,_ -> !null")
     public String getProperty(@NotNull @NonNls String key, @Nullable String defaultValue, boolean macroExpansion) {
-        String value = _gp(key);
-        return getString(((value == null) ? defaultValue : value), macroExpansion);
+        String value = getProperty(key, macroExpansion);
+        return ((value == null) ? getString(defaultValue, macroExpansion) : value);
     }
 
     public String getProperty(@NotNull @NonNls String key, boolean macroExpansion) {
-        return getString(_gp(key), macroExpansion);
+        if(!macroExpansion) return _gp(key);
+        Expansion e = expansion(key);
+        return ((e == null) ? null : e.value);
+    }
+
+    public @Override synchronized Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        try { return super.merge(key, value, remappingFunction); } finally { invalidate(key); }
+    }
+
+    public @Override synchronized Object put(Object key, Object value) {
+        try { return super.put(key, value); } finally { invalidate(key); }
+    }
+
+    public @Override synchronized void putAll(Map<?, ?> t) {
+        super.putAll(t);
+        clearCache();
+    }
+
+    public @Override synchronized Object putIfAbsent(Object key, Object value) {
+        try { return super.putIfAbsent(key, value); } finally { invalidate(key); }
+    }
+
+    public @Override synchronized Object remove(Object key) {
+        try { return super.remove(key); } finally { invalidate(key); }
+    }
+
+    public @Override synchronized boolean remove(Object key, Object value) {
+        try { return super.remove(key, value); } finally { invalidate(key); }
+    }
+
+    public @Override synchronized Object replace(Object key, Object value) {
+        try { return super.replace(key, value); } finally { invalidate(key); }
+    }
+
+    public @Override synchronized boolean replace(Object key, Object oldValue, Object newValue) {
+        try { return super.replace(key, oldValue, newValue); } finally { invalidate(key); }
+    }
+
+    public @Override synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+        super.replaceAll(function);
+        clearCache();
     }
 
     public short getShort(@NotNull @NonNls String key, short defaultValue) {
-        try {
-            return Short.parseShort(prepForNumber(getProperty(key, String.valueOf(defaultValue))));
-        }
-        catch(Exception e) {
-            return defaultValue;
-        }
+        return cached(key, Short.class, v -> Short.parseShort(prepForNumber(v)), defaultValue);
     }
 
     public short getShort(@NotNull @NonNls String key) {
@@ -260,10 +320,52 @@ public class PGProperties extends Properties {
         return super.getProperty(key);
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> T cached(@NotNull String key, @NotNull Object type, @NotNull Function<String, Object> parser, T defaultValue) {
+        Expansion e = expansion(key);
+        if(e == null) return defaultValue;
+        Object v = e.parsed.computeIfAbsent(type, t -> {
+            try { return Objects.requireNonNullElse(parser.apply(e.value), INVALID); } catch(NumberFormatException ex) { return INVALID; }
+        });
+        return ((v == INVALID) ? defaultValue : (T)v);
+    }
+
+    private @Nullable Expansion expansion(@NotNull String key) {
+        Map<String, Expansion> cache = expansions();
+        Expansion              e     = cache.get(key);
+        if(e != null) return e;
+
+        long   stamp = version.get();
+        String raw   = _gp(key);
+        if(raw == null) return null;
+
+        Set<String> deps = new HashSet<>();
+        deps.add(key);
+        e = new Expansion(Macro.replaceMacros(raw, k -> { deps.add(k); return _gp(k); }), deps);
+        cache.put(key, e);
+        if(version.get() != stamp) cache.remove(key, e);
+        return e;
+    }
+
+    private @NotNull Map<String, Expansion> expansions() {
+        Map<String, Expansion> m = expansions;
+        if(m == null) {
+            synchronized(version) {
+                if((m = expansions) == null) expansions = m = new ConcurrentHashMap<>();
+            }
+        }
+        return m;
+    }
+
     private String getString(String value, boolean macroExpansion) {
         return ((value == null) ? null : (macroExpansion ? Macro.replaceMacros(value, this::_gp) : value));
     }
 
+    private void invalidate(Object key) {
+        version.incrementAndGet();
+        if(expansions != null) expansions.values().removeIf(e -> e.dependencies.contains(key));
+    }
+
     private @NotNull String prepForNumber(@NotNull String value) {
         return value.replaceAll("_", "").replaceAll(",", "");
     }
@@ -400,8 +502,22 @@ public class PGProperties extends Properties {
         return getXMLProperties(resourceName, clazz, defaults);
     }
 
+    /**
+     * Loads properties from an XML resource. If a compiled copy of the resource exists (see {@link BinaryProperties}) and is not older than the XML then that is used instead,
+     * and the XML is only parsed if the compiled copy is missing, out of date or cannot be read. Either way the properties are in the returned object itself, with
+     * <code>defaults</code> as its defaults, so {@link #size()}, {@link #keySet()}, {@link #containsKey(Object)} and {@link #get(Object)} see them.
+     *
+     * @param resourceName The name of the resource.
+     * @param clazz        The class used to find the resource.
+     * @param defaults     The default properties or <code>null</code>.
+     * @return The properties.
+     */
     public static @NotNull PGProperties getXMLProperties(@NotNull @NonNls String resourceName, @NotNull Class<?> clazz, @Nullable Properties defaults) {
         try {
+            URL compiled = BinaryProperties.locate(resourceName, clazz);
+            if(compiled != null) {
+                try { return BinaryProperties.load(compiled).copyTo(new PGProperties(defaults)); } catch(IOException ignore) { }
+            }
             return getXMLProperties(clazz.getResourceAsStream(resourceName), defaults);
         }
         catch(Exception e) {
@@ -409,6 +525,17 @@ public class PGProperties extends Properties {
         }
     }
 
+    private static final class Expansion {
+        private final String              value;
+        private final Set<String>         dependencies;
+        private final Map<Object, Object> parsed = new ConcurrentHashMap<>(4);
+
+        public Expansion(@NotNull String value, @NotNull Set<String> dependencies) {
+            this.value        = value;
+            this.dependencies = dependencies;
+        }
+    }
+
     private static final class CacheHolder {
         private static final ObjCache CACHE = new ObjCache();
     }
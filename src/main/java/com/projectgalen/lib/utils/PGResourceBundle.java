@@ -29,9 +29,12 @@ import org.jetbrains.annotations.*;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static com.projectgalen.lib.utils.PGProperties.DEFAULT_LIST_SEPARATOR_PATTERN;
@@ -39,15 +42,24 @@ import static com.projectgalen.lib.utils.PGProperties.DEFAULT_MAP_KV_PATTERN;
 
 public final class PGResourceBundle extends ResourceBundle {
 
-    private static final PGResourceBundle msgs = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
+    private static final Map<BundleKey, PGResourceBundle> xmlCache = new ConcurrentHashMap<>();
+    private static final StackWalker                      walker   = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
 
-    private final ResourceBundle bundle;
+    private final    Supplier<ResourceBundle> loader;
+    private volatile ResourceBundle           bundle;
 
     private PGResourceBundle(@NotNull ResourceBundle bundle) {
         super();
+        this.loader = null;
         this.bundle = bundle;
     }
 
+    private PGResourceBundle(@NotNull Supplier<ResourceBundle> loader) {
+        super();
+        this.loader = loader;
+        this.bundle = null;
+    }
+
     public @NotNull String format(String key, Object... args) {
         return String.format(getString(key), args);
     }
@@ -57,7 +69,7 @@ public final class PGResourceBundle extends ResourceBundle {
     }
 
     public @Override @NotNull Enumeration<String> getKeys() {
-        return bundle.getKeys();
+        return bundle().getKeys();
     }
 
     public @NotNull Stream<String> getStreamOf(@NotNull @NonNls String key) {
@@ -69,7 +81,7 @@ public final class PGResourceBundle extends ResourceBundle {
     }
 
     public @NotNull String getString(@NotNull String key, boolean macroExpansion) {
-        return (macroExpansion ? bundle.getString(key) : getString(key));
+        return (macroExpansion ? bundle().getString(key) : getString(key));
     }
 
     public @NotNull String getString(@NotNull String key, @NotNull String defaultValue) {
@@ -108,16 +120,26 @@ public final class PGResourceBundle extends ResourceBundle {
 
     public @Nullable String getStringQuietly(@NotNull String key) {
         try {
-            return bundle.getString(key);
+            return bundle().getString(key);
         }
         catch(MissingResourceException e) {
             return null;
         }
     }
 
+    private @NotNull ResourceBundle bundle() {
+        ResourceBundle b = bundle;
+        if(b == null) {
+            synchronized(this) {
+                if((b = bundle) == null) bundle = b = loader.get();
+            }
+        }
+        return b;
+    }
+
     protected @Override @Unmodifiable @Nullable Object handleGetObject(@NotNull String key) {
         try {
-            return Macro.replaceMacros(bundle.getString(key), this::getStringQuietly);
+            return Macro.replaceMacros(bundle().getString(key), this::getStringQuietly);
         }
         catch(MissingResourceException ignore) {
             return null;
@@ -164,60 +186,148 @@ public final class PGResourceBundle extends ResourceBundle {
         return new PGResourceBundle(ResourceBundle.getBundle(baseName, locale, loader, control));
     }
 
+    /**
+     * Returns a bundle that is not loaded until it is first used. Unlike {@link #getXMLPGBundle(String)}, a missing bundle is not reported until then.
+     *
+     * @param baseName The base name of the bundle.
+     * @return The bundle.
+     */
     @Contract("_ -> new")
+    public static @NotNull PGResourceBundle getLazyXMLPGBundle(@NotNull String baseName) {
+        return new PGResourceBundle(() -> ResourceBundle.getBundle(baseName, new XMLResourceBundleControl()));
+    }
+
+    /**
+     * Discards the bundles cached by the <code>getXMLPGBundle(...)</code> methods.
+     */
+    public static void clearXMLPGBundleCache() {
+        xmlCache.clear();
+    }
+
+    /**
+     * Returns the XML bundle for the default locale, found with the caller's class loader. Bundles are cached by base name, locale and class loader, so repeated calls return
+     * the same instance. Finding the caller still takes a {@link StackWalker} walk on every call, so code that looks bundles up often should keep the bundle or pass the class
+     * loader to {@link #getXMLPGBundle(String, Locale, ClassLoader)}.
+     *
+     * @param baseName The base name of the bundle.
+     * @return The bundle.
+     */
     public static @NotNull PGResourceBundle getXMLPGBundle(@NotNull String baseName) {
-        return new PGResourceBundle(ResourceBundle.getBundle(baseName, new XMLResourceBundleControl()));
+        return getXMLPGBundle(baseName, Locale.getDefault(), loaderOf(walker.getCallerClass()));
     }
 
-    @Contract("_,_ -> new")
+    /**
+     * Returns the XML bundle for the given locale, found with the caller's class loader. Like {@link #getXMLPGBundle(String)} this walks the stack on every call to find the
+     * caller.
+     *
+     * @param baseName The base name of the bundle.
+     * @param locale   The locale.
+     * @return The bundle.
+     */
     public static @NotNull PGResourceBundle getXMLPGBundle(@NotNull String baseName, Locale locale) {
-        return new PGResourceBundle(ResourceBundle.getBundle(baseName, locale, new XMLResourceBundleControl()));
+        return getXMLPGBundle(baseName, locale, loaderOf(walker.getCallerClass()));
     }
 
-    @Contract("_,_,_ -> new")
     public static @NotNull PGResourceBundle getXMLPGBundle(@NotNull String baseName, Locale locale, ClassLoader loader) {
-        return new PGResourceBundle(ResourceBundle.getBundle(baseName, locale, loader, new XMLResourceBundleControl()));
+        BundleKey        key    = new BundleKey(baseName, locale, loader);
+        PGResourceBundle bundle = xmlCache.get(key);
+        if(bundle != null) return bundle;
+
+        bundle = new PGResourceBundle(ResourceBundle.getBundle(baseName, locale, loader, new XMLResourceBundleControl()));
+        xmlCache.keySet().removeIf(BundleKey::isStale);
+        PGResourceBundle other = xmlCache.putIfAbsent(key, bundle);
+        return ((other == null) ? bundle : other);
     }
 
-    private static class XMLKeyEnumerator implements Enumeration<String> {
-        private final Enumeration<Object> e;
+    private static @NotNull ClassLoader loaderOf(@NotNull Class<?> caller) {
+        ClassLoader loader = caller.getClassLoader();
+        return ((loader == null) ? ClassLoader.getSystemClassLoader() : loader);
+    }
 
-        public XMLKeyEnumerator(@NotNull Enumeration<Object> e) {
-            this.e = e;
+    private static final class BundleKey {
+        private final String                     baseName;
+        private final Locale                     locale;
+        private final WeakReference<ClassLoader> loader;
+        private final int                        hash;
+
+        public BundleKey(@NotNull String baseName, @NotNull Locale locale, @NotNull ClassLoader loader) {
+            this.baseName = baseName;
+            this.locale   = locale;
+            this.loader   = new WeakReference<>(loader);
+            this.hash     = Objects.hash(baseName, locale, System.identityHashCode(loader));
         }
 
-        public @Override boolean hasMoreElements() {
-            return e.hasMoreElements();
+        public @Override boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof BundleKey k)) return false;
+            ClassLoader l = loader.get();
+            return ((hash == k.hash) && (l != null) && (l == k.loader.get()) && baseName.equals(k.baseName) && locale.equals(k.locale));
         }
 
-        public @Override String nextElement() {
-            return Objects.toString(e.nextElement(), null);
+        public @Override int hashCode() {
+            return hash;
+        }
+
+        public boolean isStale() {
+            return (loader.get() == null);
+        }
+    }
+
+    private static class BinaryResourceBundle extends ResourceBundle {
+        private final BinaryProperties props;
+
+        private BinaryResourceBundle(@NotNull BinaryProperties props) {
+            super();
+            this.props = props;
+        }
+
+        public @NotNull @Override Enumeration<String> getKeys() {
+            return Collections.enumeration(props.keySet());
+        }
+
+        protected @Override @Unmodifiable Object handleGetObject(@NotNull String key) {
+            return props.getProperty(key);
+        }
+
+        protected @Override @NotNull Set<String> handleKeySet() {
+            return props.keySet();
         }
     }
 
     private static class XMLResourceBundle extends ResourceBundle {
-        private static final Properties props = new Properties();
+        private final Map<String, String> props;
 
         private XMLResourceBundle(InputStream inputStream) {
             super();
             try {
-                props.loadFromXML(inputStream);
+                Properties p = new Properties();
+                p.loadFromXML(inputStream);
+                Map<String, String> m = new HashMap<>();
+                for(String name : p.stringPropertyNames()) m.put(name, p.getProperty(name));
+                this.props = Map.copyOf(m);
             }
             catch(Exception e) {
-                throw new MissingResourceException(msgs.getString("msg.err.bundle.missing.resource.file"), PGResourceBundle.class.getName(), "");
+                // Not a static field: PGResources creates its bundle through this class, so reading it during class initialization would see null.
+                throw new MissingResourceException(PGResources.msgs().getString("msg.err.bundle.missing.resource.file"), PGResourceBundle.class.getName(), "");
             }
         }
 
         public @NotNull @Override Enumeration<String> getKeys() {
-            return new XMLKeyEnumerator(props.keys());
+            return Collections.enumeration(props.keySet());
         }
 
         protected @Override @Unmodifiable Object handleGetObject(@NotNull String key) {
-            return props.getProperty(key);
+            return props.get(key);
+        }
+
+        protected @Override @NotNull Set<String> handleKeySet() {
+            return props.keySet();
         }
     }
 
     private static class XMLResourceBundleControl extends ResourceBundle.Control {
+        private static final List<String> FORMATS = List.of(BinaryProperties.EXTENSION, "xml");
+
         public XMLResourceBundleControl() { }
 
         @Override
@@ -226,7 +336,7 @@ public final class PGResourceBundle extends ResourceBundle {
         @Contract("null -> fail")
         public List<String> getFormats(String baseName) {
             if(baseName == null) throw new NullPointerException();
-            return Collections.singletonList("xml");
+            return FORMATS;
         }
 
         @Override
@@ -234,9 +344,14 @@ public final class PGResourceBundle extends ResourceBundle {
         @Contract("null, _, _, _, _ -> fail; !null, null, _, _, _ -> fail; !null, !null, null, _, _ -> fail; !null, !null, !null, null, _ -> fail")
         public ResourceBundle newBundle(String baseName, Locale locale, String format, ClassLoader loader, boolean reload) throws IllegalAccessException, InstantiationException, IOException {
             if(baseName == null || locale == null || format == null || loader == null) throw new NullPointerException();
-            if(!format.equals("xml")) return null;
-            URL url = loader.getResource(toResourceName(toBundleName(baseName, locale), format));
+            if(!FORMATS.contains(format)) return null;
+            String bundleName = toBundleName(baseName, locale);
+            URL    url        = loader.getResource(toResourceName(bundleName, format));
             if(url == null) return null;
+            if(format.equals(BinaryProperties.EXTENSION)) {
+                if(!BinaryProperties.isCurrent(url, loader.getResource(toResourceName(bundleName, "xml")))) return null;
+                try { return new BinaryResourceBundle(BinaryProperties.load(url)); } catch(IOException e) { return null; }
+            }
             URLConnection conn = url.openConnection();
             conn.setUseCaches(!reload);
             try(BufferedInputStream inputStream = new BufferedInputStream(conn.getInputStream())) { return new XMLResourceBundle(inputStream); }
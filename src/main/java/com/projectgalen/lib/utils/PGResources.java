@@ -0,0 +1,55 @@
+package com.projectgalen.lib.utils;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: PGResources.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The configuration and messages used by the library itself.
+ * <p>
+ * Both are loaded at most once per class loader and shared by every class in the library. The message bundle is not read until the first message is actually requested, so
+ * classes that only need messages to report errors no longer pay for parsing it during class initialization. The shared {@link PGProperties} instance must be treated as read-only.
+ */
+public final class PGResources {
+
+    public static final String MESSAGES_BASE_NAME = "com.projectgalen.lib.utils.pg_messages";
+    public static final String PROPERTIES_NAME    = "pg_properties.xml";
+
+    private PGResources() { }
+
+    public static @NotNull PGResourceBundle msgs() {
+        return MsgsHolder.MSGS;
+    }
+
+    public static @NotNull PGProperties props() {
+        return PropsHolder.PROPS;
+    }
+
+    private static final class MsgsHolder {
+        private static final PGResourceBundle MSGS = PGResourceBundle.getLazyXMLPGBundle(MESSAGES_BASE_NAME);
+    }
+
+    private static final class PropsHolder {
+        private static final PGProperties PROPS = PGProperties.getXMLProperties(PROPERTIES_NAME, PGResources.class);
+    }
+}
@@ -29,7 +29,7 @@ import java.util.regex.Matcher;
 
 @SuppressWarnings({ "SpellCheckingInspection", "unused" })
 public final class Range {
-    private static final PGResourceBundle msgs = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
+    private static final PGResourceBundle msgs = PGResources.msgs();
 
     public final int start;
     public final int end;
@@ -46,7 +46,7 @@ import static java.util.stream.Collector.Characteristics.UNORDERED;
 
 @SuppressWarnings({ "unused", "SpellCheckingInspection" })
 public class Streams {
-    private static final PGResourceBundle msgs = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
+    private static final PGResourceBundle msgs = PGResources.msgs();
 
     /**
      * A summing collector for {@link BigDecimal} values that maintains precision.
@@ -37,7 +37,7 @@ import static com.projectgalen.lib.utils.regex.Regex.getUnicodeMatcher;
 
 @SuppressWarnings({ "unused", "SpellCheckingInspection" })
 public final class Text {
-    private static final PGResourceBundle msgs = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
+    private static final PGResourceBundle msgs = PGResources.msgs();
 
     private Text() { }
 
@@ -43,7 +43,7 @@ import java.util.regex.Matcher;
 
 @SuppressWarnings({ "unused", "SameParameterValue", "unchecked" })
 public final class U {
-    private static final PGResourceBundle msgs = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
+    private static final PGResourceBundle msgs = PGResources.msgs();
 
     private U() { }
 
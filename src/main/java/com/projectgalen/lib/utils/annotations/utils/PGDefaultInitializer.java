@@ -0,0 +1,175 @@
+package com.projectgalen.lib.utils.annotations.utils;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: PGDefaultInitializer.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+import com.projectgalen.lib.utils.annotations.PGCurrentTimestamp;
+import com.projectgalen.lib.utils.annotations.PGDefaultValue;
+import com.projectgalen.lib.utils.errors.PGDefaultValueError;
+import com.projectgalen.lib.utils.reflection.ClassMetadata;
+import com.projectgalen.lib.utils.reflection.Reflection;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Sets the {@link PGDefaultValue} and {@link PGCurrentTimestamp} values of a class. The annotations of a class are read once, the first time the class is seen, and each
+ * annotated field or setter becomes a precomputed setter handle paired with a supplier of its value. Default values that are immutable, such as strings, numbers and enums, are
+ * parsed once and shared by every instance. Dates are parsed once and a fresh copy is made for each instance. Values of any other type are created anew for each instance.
+ * <p>
+ * Initializers are cached with a {@link ClassValue} and are thread-safe.
+ */
+@SuppressWarnings("unused")
+public final class PGDefaultInitializer {
+
+    private static final PGResourceBundle                 msgs         = PGResources.msgs();
+    private static final MethodType                       SET          = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final List<Class<?>>                   IMMUTABLES   = List.of(String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+                                                                                 Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class);
+    private static final ClassValue<PGDefaultInitializer> INITIALIZERS = new ClassValue<>() {
+        protected @Override PGDefaultInitializer computeValue(@NotNull Class<?> type) { return new PGDefaultInitializer(type); }
+    };
+
+    private final Class<?> type;
+    private final Step[]   steps;
+
+    private PGDefaultInitializer(@NotNull Class<?> type) {
+        ClassMetadata md         = ClassMetadata.forClass(type);
+        List<Step>    steps      = new ArrayList<>();
+        Set<String>   signatures = new HashSet<>();
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            for(Field field : md.getAllFields()) {
+                if(Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) continue;
+                Supplier<?> value = valueSupplier(field, field.getType());
+                if(value != null) steps.add(new Step(lookup.unreflectSetter(Reflection.accessibleCopy(field)).asType(SET), value));
+            }
+
+            for(Method method : md.getAllMethods()) {
+                if(Modifier.isStatic(method.getModifiers())) continue;
+                Supplier<?> value = valueSupplier(method, ((method.getParameterCount() == 1) ? method.getParameterTypes()[0] : void.class));
+                if(value == null) continue;
+                if((method.getReturnType() != void.class) || (method.getParameterCount() != 1)) throw new PGDefaultValueError(msgs.getString("msg.err.def.not_setter"));
+                // The most specific declaration comes first. Calling an overridden setter again through a superclass would just call the override a second time.
+                if(!Modifier.isPrivate(method.getModifiers()) && !signatures.add(method.getName() + Arrays.toString(method.getParameterTypes()))) continue;
+                steps.add(new Step(lookup.unreflect(Reflection.accessibleCopy(method)).asType(SET), value));
+            }
+        }
+        catch(IllegalAccessException e) {
+            throw new PGDefaultValueError(msgs.format("msg.err.def.exception", e), e);
+        }
+
+        this.type  = type;
+        this.steps = steps.toArray(Step[]::new);
+    }
+
+    /**
+     * Sets every default value of the given object.
+     *
+     * @param obj The object.
+     * @param <T> The type of the object.
+     *
+     * @return The object.
+     *
+     * @throws PGDefaultValueError If setting a value fails.
+     */
+    public <T> @NotNull T apply(@NotNull T obj) throws PGDefaultValueError {
+        for(Step step : steps) step.apply(obj);
+        return obj;
+    }
+
+    public @NotNull Class<?> getType() { return type; }
+
+    public boolean isEmpty()           { return (steps.length == 0); }
+
+    public static @NotNull PGDefaultInitializer forClass(@NotNull Class<?> cls) { return INITIALIZERS.get(cls); }
+
+    private static boolean isImmutable(@NotNull Class<?> type) {
+        return (type.isPrimitive() || type.isEnum() || IMMUTABLES.contains(type) || "java.time".equals(type.getPackageName()));
+    }
+
+    private static @NotNull Supplier<?> timestampSupplier(@NotNull Class<?> type) throws PGDefaultValueError {/*@f0*/
+        if(Date.class.isAssignableFrom(type) || Calendar.class.isAssignableFrom(type)) return () -> PGDefaultValueImpl.dateByMilliseconds(type, System.currentTimeMillis());
+        if((type == long.class) || (type == Long.class))                             return System::currentTimeMillis;
+        if(type == Instant.class)                                                      return Instant::now;
+        if(type == LocalDateTime.class)                                                return LocalDateTime::now;
+        if(type == LocalDate.class)                                                    return LocalDate::now;
+        if(type == LocalTime.class)                                                    return LocalTime::now;
+        if(type == OffsetDateTime.class)                                               return OffsetDateTime::now;
+        if(type == ZonedDateTime.class)                                                return ZonedDateTime::now;
+        throw new PGDefaultValueError(msgs.format("msg.err.def.unsupported_timestamp_type", type.getName()));
+    }/*@f1*/
+
+    private static Supplier<?> valueSupplier(@NotNull AnnotatedElement member, @NotNull Class<?> type) throws PGDefaultValueError {
+        PGDefaultValue dv = member.getAnnotation(PGDefaultValue.class);
+
+        if(dv != null) {
+            Object value = PGDefaultValueImpl.getDefaultValue(dv, type);
+            if(isImmutable(value.getClass())) return () -> value;
+            if(value instanceof Date d) { long ms = d.getTime(); return () -> PGDefaultValueImpl.dateByMilliseconds(type, ms); }
+            if(value instanceof Calendar c) { long ms = c.getTimeInMillis(); return () -> PGDefaultValueImpl.dateByMilliseconds(type, ms); }
+            return () -> PGDefaultValueImpl.getDefaultValue(dv, type);
+        }
+
+        return (member.isAnnotationPresent(PGCurrentTimestamp.class) ? timestampSupplier(type) : null);
+    }
+
+    private static final class Step {
+        private final MethodHandle setter;
+        private final Supplier<?>  value;
+
+        public Step(@NotNull MethodHandle setter, @NotNull Supplier<?> value) {
+            this.setter = setter;
+            this.value  = value;
+        }
+
+        public void apply(@NotNull Object obj) throws PGDefaultValueError {
+            try {
+                setter.invokeExact(obj, (Object)value.get());
+            }
+            catch(PGDefaultValueError e) {
+                throw e;
+            }
+            catch(Throwable t) {
+                throw new PGDefaultValueError(msgs.format("msg.err.def.exception", t), t);
+            }
+        }
+    }
+}
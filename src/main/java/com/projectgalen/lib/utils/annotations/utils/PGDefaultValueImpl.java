@@ -25,24 +25,26 @@ package com.projectgalen.lib.utils.annotations.utils;
 import com.projectgalen.lib.utils.Dates;
 import com.projectgalen.lib.utils.PGProperties;
 import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
 import com.projectgalen.lib.utils.annotations.PGDefaultValue;
 import com.projectgalen.lib.utils.errors.PGDefaultValueError;
+import com.projectgalen.lib.utils.reflection.Reflection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 
 public final class PGDefaultValueImpl {
-    private static final PGResourceBundle msgs                 = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
-    private static final PGProperties     props                = PGProperties.getXMLProperties("pg_properties.xml", PGProperties.class);
+    private static final PGResourceBundle msgs                 = PGResources.msgs();
+    private static final PGProperties     props                = PGResources.props();
     private static final String           VALUE_OF_METHOD_NAME = props.getProperty("default.value_of.method_name");
 
     private PGDefaultValueImpl() { }
@@ -54,15 +56,30 @@ public final class PGDefaultValueImpl {
             else if(Date.class.isAssignableFrom(type) || Calendar.class.isAssignableFrom(type)) return getDate(dv, type);
             else if(Boolean.class.isAssignableFrom(type) || boolean.class.isAssignableFrom(type)) return Boolean.valueOf(dv.value());
             else if(Character.class.isAssignableFrom(type) || char.class.isAssignableFrom(type)) return dv.value().charAt(0);
-            return getDefaultValueByValueOf(dv, type);
+            return getDefaultValueByValueOf(dv, Reflection.objectClassForPrimitive(type));
         }
         catch(PGDefaultValueError e) { throw e; }
         catch(Throwable e) { throw new PGDefaultValueError(msgs.format("msg.err.def.exception", e), e); }
     }
 
+    /**
+     * Sets every {@link PGDefaultValue} and {@link com.projectgalen.lib.utils.annotations.PGCurrentTimestamp} value of the given object using the cached
+     * {@link PGDefaultInitializer} for its class.
+     *
+     * @param obj The object.
+     * @param <T> The type of the object.
+     *
+     * @return The object.
+     *
+     * @throws PGDefaultValueError If setting a value fails.
+     */
+    public static <T> @NotNull T populate(@NotNull T obj) throws PGDefaultValueError {
+        return PGDefaultInitializer.forClass(obj.getClass()).apply(obj);
+    }
+
     public static void populate(@NotNull Method method, @Nullable Object obj) throws PGDefaultValueError {
         Class<?>[] params = method.getParameterTypes();
-        if((method.getReturnType() != Void.class) || (params.length != 1)) throw new PGDefaultValueError(msgs.getString("msg.err.def.not_setter"));
+        if((method.getReturnType() != void.class) || (params.length != 1)) throw new PGDefaultValueError(msgs.getString("msg.err.def.not_setter"));
         PGDefaultValue dv = method.getAnnotation(PGDefaultValue.class);
         if((obj != null) && (dv != null)) {
             try { method.invoke(obj, getDefaultValue(dv, params[0])); }
@@ -80,7 +97,7 @@ public final class PGDefaultValueImpl {
         }
     }
 
-    private static @NotNull Object dateByMilliseconds(@NotNull Class<?> type, long ms) {
+    static @NotNull Object dateByMilliseconds(@NotNull Class<?> type, long ms) {
         if(Calendar.class.isAssignableFrom(type)) return Dates.getCalendar(ms);
         else if(Timestamp.class.isAssignableFrom(type)) return new Timestamp(ms);
         else if(java.sql.Date.class.isAssignableFrom(type)) return new java.sql.Date(ms);
@@ -89,11 +106,11 @@ public final class PGDefaultValueImpl {
     }
 
     private static @NotNull Object getDate(@NotNull PGDefaultValue dv, @NotNull Class<?> type) throws ParseException {
-        return dateByMilliseconds(type, ((dv.format().length() == 0) ? Long.parseLong(dv.value()) : new SimpleDateFormat(dv.format()).parse(dv.value()).getTime()));
+        return dateByMilliseconds(type, ((dv.format().length() == 0) ? Long.parseLong(dv.value()) : Dates.parse(dv.format(), dv.value()).getTime()));
     }
 
     private static @NotNull Object getDefaultByConstructor(@NotNull PGDefaultValue dv, @NotNull Class<?> type) throws PGDefaultValueError {
-        try { return type.getConstructor(String.class).newInstance(dv.value()); }
+        try { return Reflection.makeAccessable(type.getDeclaredConstructor(String.class)).newInstance(dv.value()); }
         catch(NoSuchMethodException e) {
             throw new PGDefaultValueError(msgs.format("msg.err.def.no_way",
                                                       VALUE_OF_METHOD_NAME));
@@ -103,7 +120,9 @@ public final class PGDefaultValueImpl {
 
     private static @NotNull Object getDefaultValueByValueOf(@NotNull PGDefaultValue dv, @NotNull Class<?> type) throws PGDefaultValueError {
         try {
-            Object obj = type.getMethod(VALUE_OF_METHOD_NAME, String.class).invoke(null, dv.value());
+            Method valueOf = Reflection.getMethod(type, VALUE_OF_METHOD_NAME, true, String.class);
+            if(!Modifier.isStatic(valueOf.getModifiers())) return getDefaultByConstructor(dv, type);
+            Object obj = Reflection.makeAccessable(valueOf).invoke(null, dv.value());
             if(obj == null) throw new PGDefaultValueError(msgs.format("msg.err.def.value_of.returned_null", VALUE_OF_METHOD_NAME));
             return obj;
         }
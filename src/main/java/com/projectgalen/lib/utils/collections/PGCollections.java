@@ -23,6 +23,7 @@ package com.projectgalen.lib.utils.collections;
 // ===========================================================================
 
 import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -39,7 +40,7 @@ import java.util.stream.Stream.Builder;
 @SuppressWarnings("unused")
 public final class PGCollections {
 
-    private static final PGResourceBundle msgs = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
+    private static final PGResourceBundle msgs = PGResources.msgs();
 
     public PGCollections() { }
 
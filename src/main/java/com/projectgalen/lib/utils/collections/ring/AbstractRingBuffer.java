@@ -23,18 +23,36 @@ package com.projectgalen.lib.utils.collections.ring;
 // ===========================================================================
 
 import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 
 import java.lang.reflect.Array;
+import java.nio.Buffer;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
-@SuppressWarnings({ "SuspiciousSystemArraycopy", "unchecked" })
-public abstract class AbstractRingBuffer<E> implements AutoCloseable {
+/**
+ * The base class for ring buffers. The type parameter is the type of the backing array (<code>byte[]</code>, <code>char[]</code>, etc.) so that subclasses can read and write single
+ * elements directly without reflection or boxing. Bulk operations use {@link System#arraycopy(Object, int, Object, int, int)}.
+ * <p>
+ * The bulk operations check the requested range against the array or {@link Buffer} they are given before the head or tail of the ring is moved, so a bad offset or length
+ * throws an {@link IndexOutOfBoundsException} and leaves the ring as it was. A zero-length request returns straight away without waiting or looking at the ring.
+ *
+ * @param <A> The type of the backing array.
+ */
+@SuppressWarnings({ "SuspiciousSystemArraycopy", "unused" })
+public abstract class AbstractRingBuffer<A> implements AutoCloseable {
 
-    private static final PGResourceBundle msgs = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
+    private static final PGResourceBundle msgs = PGResources.msgs();
+
+    protected static final Supplier<Boolean> NEVER        = () -> false;
+    protected static final int               MIN_SIZE     = 16;
+    protected static final int               DEFAULT_SIZE = (1024 * 1024);
 
     protected final int     initSize;
     protected final String  lock   = UUID.randomUUID().toString();
@@ -42,24 +60,24 @@ public abstract class AbstractRingBuffer<E> implements AutoCloseable {
     protected       int     tail   = 0;
     protected       boolean closed = false;
     protected       int     capacity;
-    protected       Object  buffer;
+    protected       A       buffer;
 
     public AbstractRingBuffer(int initSize) {
-        this.initSize = Math.max(initSize, 1024 * 1024);
+        this.initSize = Math.max(initSize, MIN_SIZE);
         this.capacity = this.initSize;
         this.buffer   = createArray(this.initSize);
     }
 
     public AbstractRingBuffer() {
-        this(1024 * 1024);
+        this(DEFAULT_SIZE);
     }
 
     public int available() {
-        return getLocked(false, this::count);
+        synchronized(lock) { return count(); }
     }
 
     public int capacity() {
-        return getLocked(false, () -> capacity);
+        synchronized(lock) { return capacity; }
     }
 
     public void close() {
@@ -71,11 +89,11 @@ public abstract class AbstractRingBuffer<E> implements AutoCloseable {
     }
 
     public boolean isClosed() {
-        return getLocked(false, () -> closed);
+        synchronized(lock) { return closed; }
     }
 
     public boolean isEmpty() {
-        return getLocked(false, () -> (head == tail));
+        synchronized(lock) { return (head == tail); }
     }
 
     public int skip(long n) {
@@ -87,32 +105,139 @@ public abstract class AbstractRingBuffer<E> implements AutoCloseable {
     }
 
     public <T> Optional<T> waitFor(@NotNull Supplier<Boolean> stopOn, @NotNull Supplier<T> supplier) throws InterruptedException {
-        synchronized(lock) { return wait1(stopOn) ? Optional.empty() : Optional.ofNullable(supplier.get()); }
+        synchronized(lock) { return awaitData(stopOn) ? Optional.empty() : Optional.ofNullable(supplier.get()); }
     }
 
     public <T> Optional<T> waitFor(@NotNull Supplier<T> supplier) throws InterruptedException {
-        return waitFor(() -> false, supplier);
+        return waitFor(NEVER, supplier);
     }
 
-    protected abstract @NotNull Object createArray(@Range(from = 0, to = Integer.MAX_VALUE) int size);
+    /**
+     * Waits until there is data in the buffer. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @param stopOn Returns <code>true</code> if waiting should stop even though there is no data.
+     *
+     * @return <code>true</code> if the buffer is closed or <code>stopOn</code> returned <code>true</code> before any data became available.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    protected boolean awaitData(@NotNull Supplier<Boolean> stopOn) throws InterruptedException {
+        do {
+            if(head != tail) return false;
+            if(closed || stopOn.get()) return true;
+            lock.wait();
+        }
+        while(true);
+    }
+
+    /**
+     * Waits until there is data in the buffer or the timeout expires. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @param stopOn       Returns <code>true</code> if waiting should stop even though there is no data.
+     * @param timeoutNanos The maximum time to wait in nanoseconds.
+     *
+     * @return <code>true</code> if the buffer is closed or <code>stopOn</code> returned <code>true</code> before any data became available. <code>false</code> if there is data or
+     *     the timeout expired.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    protected boolean awaitData(@NotNull Supplier<Boolean> stopOn, long timeoutNanos) throws InterruptedException {
+        long deadline = (System.nanoTime() + timeoutNanos);
+        do {
+            if(head != tail) return false;
+            if(closed || stopOn.get()) return true;
+            long remaining = (deadline - System.nanoTime());
+            if(remaining <= 0) return false;
+            TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+        }
+        while(true);
+    }
+
+    protected abstract @NotNull A createArray(@Range(from = 0, to = Integer.MAX_VALUE) int size);
 
     protected void doLocked(@NotNull Runnable runnable) {
         synchronized(lock) { try { runnable.run(); } finally { lock.notify(); } }
     }
 
-    protected @NotNull Optional<Optional<E>> get1() {
-        return getLocked(() -> Optional.ofNullable(closed ? null : get2()));
+    /**
+     * Copies elements from another array or buffer into {@link #buffer}. Subclasses whose backing store is not a Java array override this.
+     *
+     * @param src    The source.
+     * @param srcOff The offset in the source.
+     * @param dstIdx The index in {@link #buffer}.
+     * @param len    The number of elements to copy.
+     */
+    protected void copyIn(@NotNull Object src, int srcOff, int dstIdx, int len) {
+        System.arraycopy(src, srcOff, buffer, dstIdx, len);
     }
 
-    protected int get1(@NotNull Object buf, int off, int len) {
-        return getLocked(() -> get2(buf, off, len));
+    /**
+     * Copies elements out of {@link #buffer} into another array or buffer. Subclasses whose backing store is not a Java array override this.
+     *
+     * @param srcIdx The index in {@link #buffer}.
+     * @param dst    The destination.
+     * @param dstOff The offset in the destination.
+     * @param len    The number of elements to copy.
+     */
+    protected void copyOut(int srcIdx, @NotNull Object dst, int dstOff, int len) {
+        System.arraycopy(buffer, srcIdx, dst, dstOff, len);
+    }
+
+    /**
+     * Returns the number of elements, starting at {@link #head}, that can be read without wrapping around. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @return The number of contiguous elements.
+     */
+    protected int contiguousData() {
+        return ((head <= tail) ? (tail - head) : (capacity - head));
+    }
+
+    /**
+     * Makes sure there is room for at least <code>needed</code> more elements and returns the number of elements, starting at {@link #tail}, that can be written without wrapping
+     * around. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @param needed The number of elements that will be written.
+     *
+     * @return The number of contiguous free elements.
+     */
+    protected int contiguousSpace(int needed) {
+        ensure(needed);
+        if((head == tail) && (tail != 0)) head = tail = 0;
+        return ((tail < head) ? (head - tail - 1) : (capacity - tail - ((head == 0) ? 1 : 0)));
+    }
+
+    /**
+     * Marks elements as read after they have been copied directly out of {@link #buffer}. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @param delta The number of elements read.
+     */
+    protected void consumed(int delta) {
+        incHead(delta);
+    }
+
+    /**
+     * Marks elements as written after they have been copied directly into {@link #buffer}. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @param delta The number of elements written.
+     */
+    protected void produced(int delta) {
+        incTail(delta);
     }
 
-    protected @NotNull Optional<E> get2() {
-        return ((head == tail) ? Optional.empty() : get3());
+    protected int get1(@NotNull Object buf, int off, int len) {
+        if(isEmptyRange(buf, off, len)) return 0;
+        synchronized(lock) { try { return get2(buf, off, len); } finally { lock.notify(); } }
     }
 
+    /**
+     * Copies up to <code>len</code> elements out of the buffer without waiting. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @return The number of elements copied or -1 if the buffer is closed.
+     *
+     * @throws IndexOutOfBoundsException If the range is not inside <code>buf</code>.
+     */
     protected int get2(@NotNull Object buf, int off, int len) {
+        checkRange(buf, off, len);
         return (closed ? -1 : cpOut(buf, off, len));
     }
 
@@ -124,26 +249,91 @@ public abstract class AbstractRingBuffer<E> implements AutoCloseable {
         synchronized(lock) { try { return supplier.get(); } finally { if(notify) lock.notify(); } }
     }
 
-    protected void put1(@NotNull Object buf, int off, int len) {
-        if(getLocked(() -> put2(buf, off, len))) throw new IllegalStateException(msgs.getString("msg.err.ringbuff.buffer_is_closed"));
+    /**
+     * Removes one element from the head of the buffer and returns its index in {@link #buffer}. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @return The index of the element or -1 if the buffer is empty.
+     */
+    protected int nextGetIndex() {
+        return ((head == tail) ? -1 : incHead(1));
     }
 
-    protected void put1(@NotNull E value) {
-        if(getLocked(() -> put2(value))) throw new IllegalStateException(msgs.getString("msg.err.ringbuff.buffer_is_closed"));
+    /**
+     * Removes one element from the head of the buffer and returns its index in {@link #buffer}. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @return The index of the element.
+     *
+     * @throws NoSuchElementException If the buffer is empty.
+     * @throws IllegalStateException  If the buffer is closed.
+     */
+    protected int nextIndex() {
+        if(closed) throw closedError();
+        int i = nextGetIndex();
+        if(i < 0) throw new NoSuchElementException(msgs.getString("msg.err.ringbuff.buffer_is_empty"));
+        return i;
     }
 
+    /**
+     * Reserves room for one element at the tail of the buffer, growing the buffer if needed, and returns its index in {@link #buffer}. Must be called while holding the monitor
+     * of {@link #lock} and only if the buffer is not closed.
+     *
+     * @return The index where the new element should be stored.
+     */
+    protected int nextPutIndex() {
+        ensure(1);
+        return incTail(1);
+    }
+
+    protected void put1(@NotNull Object buf, int off, int len) {
+        if(isEmptyRange(buf, off, len)) return;
+        boolean wasClosed;
+        synchronized(lock) { try { wasClosed = put2(buf, off, len); } finally { lock.notify(); } }
+        if(wasClosed) throw closedError();
+    }
+
+    /**
+     * Copies <code>len</code> elements into the buffer, growing it if needed. Must be called while holding the monitor of {@link #lock}.
+     *
+     * @return <code>true</code> if the buffer is closed and nothing was copied.
+     *
+     * @throws IndexOutOfBoundsException If the range is not inside <code>buf</code>.
+     */
     protected boolean put2(@NotNull Object buf, int off, int len) {
+        checkRange(buf, off, len);
         if(closed) return true;
         ensure(len);
         cpIn(buf, off, len);
         return false;
     }
 
-    protected boolean put2(@NotNull E value) {
-        if(closed) return true;
-        ensure(1);
-        Array.set(buffer, incTail(1), value);
-        return false;
+    /**
+     * Waits until there is data in the buffer and then copies up to <code>len</code> elements out of it.
+     *
+     * @return The number of elements copied or -1 if the buffer is closed.
+     *
+     * @throws IndexOutOfBoundsException If the range is not inside <code>buf</code>.
+     * @throws InterruptedException      If the thread was interrupted while waiting.
+     */
+    protected int wget1(@NotNull Object buf, int off, int len) throws InterruptedException {
+        if(isEmptyRange(buf, off, len)) return 0;
+        synchronized(lock) { return (awaitData(NEVER) ? -1 : get2(buf, off, len)); }
+    }
+
+    /**
+     * Waits no longer than the given time for data and then copies up to <code>len</code> elements out of the buffer.
+     *
+     * @return The number of elements copied, zero if the timeout expired, or -1 if the buffer is closed.
+     *
+     * @throws IndexOutOfBoundsException If the range is not inside <code>buf</code>.
+     * @throws InterruptedException      If the thread was interrupted while waiting.
+     */
+    protected int wget1(@NotNull Object buf, int off, int len, long timeoutNanos) throws InterruptedException {
+        if(isEmptyRange(buf, off, len)) return 0;
+        synchronized(lock) { return (awaitData(NEVER, timeoutNanos) ? -1 : get2(buf, off, len)); }
+    }
+
+    protected @NotNull IllegalStateException closedError() {
+        return new IllegalStateException(msgs.getString("msg.err.ringbuff.buffer_is_closed"));
     }
 
     private int count() {
@@ -153,12 +343,12 @@ public abstract class AbstractRingBuffer<E> implements AutoCloseable {
     private void cpIn(@NotNull Object buf, int off, int len) {
         if(tail <= head) {
             if(tail == head) head = tail = 0;
-            System.arraycopy(buf, off, buffer, incTail(len), len);
+            copyIn(buf, off, incTail(len), len);
         }
         else {
             int l1 = Math.min(len, (capacity - tail));
-            System.arraycopy(buf, off, buffer, incTail(len), l1);
-            System.arraycopy(buf, (off + l1), buffer, 0, (len - l1));
+            copyIn(buf, off, incTail(len), l1);
+            if(l1 < len) copyIn(buf, (off + l1), 0, (len - l1));
         }
     }
 
@@ -166,12 +356,12 @@ public abstract class AbstractRingBuffer<E> implements AutoCloseable {
         if((head == tail) || (len <= 0)) return 0;
         int l1 = Math.min(len, count());
         if(head < tail) {
-            System.arraycopy(buffer, incHead(l1), buf, off, l1);
+            copyOut(incHead(l1), buf, off, l1);
         }
         else {
             int l2 = Math.min(l1, (capacity - head));
-            System.arraycopy(buffer, incHead(l1), buf, off, l2);
-            System.arraycopy(buffer, 0, buf, (off + l2), (l1 - l2));
+            copyOut(incHead(l1), buf, off, l2);
+            if(l2 < l1) copyOut(0, buf, (off + l2), (l1 - l2));
         }
         return l1;
     }
@@ -183,7 +373,7 @@ public abstract class AbstractRingBuffer<E> implements AutoCloseable {
 
             if((cap - cnt - 1) < needed) {
                 do cap = incSize(cap); while((cap - cnt - 1) < needed);
-                Object buf = createArray(cap);
+                A buf = createArray(cap);
                 cpOut(buf, 0, cnt);
                 head     = 0;
                 tail     = cnt;
@@ -193,10 +383,6 @@ public abstract class AbstractRingBuffer<E> implements AutoCloseable {
         }
     }
 
-    private @NotNull Optional<E> get3() {
-        return Optional.of((E)Array.get(buffer, incHead(1)));
-    }
-
     private int incHead(@Range(from = 0, to = Integer.MAX_VALUE) int delta) {
         int orgHead = head;
         head = ((head + delta) % capacity);
@@ -215,12 +401,24 @@ public abstract class AbstractRingBuffer<E> implements AutoCloseable {
         return orgTail;
     }
 
-    private boolean wait1(@NotNull Supplier<Boolean> stopOn) throws InterruptedException {
-        do {
-            if(head != tail) return false;
-            if(closed || stopOn.get()) return true;
-            lock.wait();
-        }
-        while(true);
+    /**
+     * Checks that the range lies inside the given array or, for a {@link Buffer}, below its limit.
+     *
+     * @throws IndexOutOfBoundsException If it does not.
+     */
+    protected static void checkRange(@NotNull Object buf, int off, int len) {
+        Objects.checkFromIndexSize(off, len, ((buf instanceof Buffer b) ? b.limit() : Array.getLength(buf)));
+    }
+
+    /**
+     * Checks the range with {@link #checkRange(Object, int, int)}.
+     *
+     * @return <code>true</code> if the range is empty.
+     *
+     * @throws IndexOutOfBoundsException If the range is not inside <code>buf</code>.
+     */
+    protected static boolean isEmptyRange(@NotNull Object buf, int off, int len) {
+        checkRange(buf, off, len);
+        return (len == 0);
     }
 }
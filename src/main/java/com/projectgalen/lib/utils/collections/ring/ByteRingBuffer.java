@@ -23,84 +23,251 @@ package com.projectgalen.lib.utils.collections.ring;
 // ===========================================================================
 
 import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
-import java.util.Optional;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
-@SuppressWarnings({ "OptionalUsedAsFieldOrParameterType", "unused" })
-public class ByteRingBuffer extends AbstractRingBuffer<Byte> {
+/**
+ * A growable byte ring buffer. Besides reading and writing it directly, it can be used as an in-process pipe through the stream views ({@link #getInputStream()},
+ * {@link #getOutputStream()}) or the channel views ({@link #source()}, {@link #sink()}). Closing a writing view signals end-of-stream to the reading views once the remaining data
+ * has been read. Writes never block because the buffer grows as needed.
+ */
+@SuppressWarnings("unused")
+public class ByteRingBuffer extends AbstractRingBuffer<byte[]> {
 
-    private static final PGResourceBundle msgs = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
+    private static final PGResourceBundle msgs = PGResources.msgs();
+
+    private boolean writerClosed = false;
 
     public ByteRingBuffer(int initSize)                                                 { super(initSize); }
 
     public ByteRingBuffer()                                                             { super(); }
 
-    public int get()                                                                    { return get1().map(this::bar).orElse(-2); }
+    public int get()                                                                    { synchronized(lock) { try { return (closed ? -2 : nextByte()); } finally { lock.notify(); } } }
 
     public int get(byte @NotNull [] buf, int off, int len)                              { return get1(buf, off, len); }
 
     public int get(byte @NotNull [] buf)                                                { return get1(buf, 0, buf.length); }
 
-    public void put(int aByte)                                                          { put1((byte)(aByte & 0x00ff)); }
+    public @NotNull RingInputStream getInputStream()                                    { return new RingInputStream(); }
+
+    public @NotNull RingOutputStream getOutputStream()                                  { return new RingOutputStream(); }
+
+    public void put(int aByte)                                                          { synchronized(lock) { try { if(closed) throw closedError(); putByte(aByte); } finally { lock.notify(); } } }
 
     public void put(byte @NotNull [] buf, int off, int len)                             { put1(buf, off, len); }
 
     public void put(byte @NotNull [] buf)                                               { put1(buf, 0, buf.length); }
 
-    public int wget(byte @NotNull [] buf, int off, int len) throws InterruptedException { return waitFor(() -> get2(buf, off, len)).orElse(-1); }
+    /**
+     * Copies as many bytes as are available, up to <code>dst.remaining()</code>, into the given buffer without waiting and advances its position.
+     *
+     * @param dst The destination buffer.
+     *
+     * @return The number of bytes copied or -1 if the ring buffer is closed.
+     */
+    public int read(@NotNull ByteBuffer dst)                                            { synchronized(lock) { try { return transferOut(dst); } finally { lock.notify(); } } }
+
+    public @NotNull RingSinkChannel sink()                                              { return new RingSinkChannel(); }
+
+    public @NotNull RingSourceChannel source()                                          { return new RingSourceChannel(); }
+
+    public int wget(byte @NotNull [] buf, int off, int len) throws InterruptedException { return wget1(buf, off, len); }
+
+    /**
+     * Reads up to <code>len</code> bytes, waiting no longer than the given timeout for data to become available.
+     *
+     * @return The number of bytes read, zero if the timeout expired, or -1 if the ring buffer is closed.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public int wget(byte @NotNull [] buf, int off, int len, long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return wget1(buf, off, len, unit.toNanos(timeout));
+    }
 
-    public int wget(byte @NotNull [] buf) throws InterruptedException                   { return waitFor(() -> get2(buf, 0, buf.length)).orElse(-1); }
+    public int wget(byte @NotNull [] buf) throws InterruptedException                   { return wget(buf, 0, buf.length); }
+
+    public int wget() throws InterruptedException                                       { synchronized(lock) { return (awaitData(NEVER) ? -1 : nextByte()); } }
+
+    /**
+     * Copies all the remaining bytes of the given buffer into the ring buffer and advances the buffer's position.
+     *
+     * @param src The source buffer.
+     *
+     * @return The number of bytes copied.
+     *
+     * @throws IllegalStateException If the ring buffer is closed.
+     */
+    public int write(@NotNull ByteBuffer src) {
+        int cnt = src.remaining();
+        put1(src, src.position(), cnt);
+        src.position(src.position() + cnt);
+        return cnt;
+    }
 
-    public int wget() throws InterruptedException                                       { return waitFor(() -> bar(get2())).orElse(-1); }
+    protected @Override void copyIn(@NotNull Object src, int srcOff, int dstIdx, int len) {
+        if(src instanceof ByteBuffer bb) bb.get(srcOff, buffer, dstIdx, len);
+        else super.copyIn(src, srcOff, dstIdx, len);
+    }
 
-    protected @Override @NotNull Object createArray(int size)                           { return new byte[size]; }
+    protected @Override void copyOut(int srcIdx, @NotNull Object dst, int dstOff, int len) {
+        if(dst instanceof ByteBuffer bb) bb.put(dstOff, buffer, srcIdx, len);
+        else super.copyOut(srcIdx, dst, dstOff, len);
+    }
 
-    private int bar(@NotNull Optional<Byte> ob)                                         { return ob.map(this::map).orElse(-1); }
+    protected @Override byte @NotNull [] createArray(int size)                          { return new byte[size]; }
 
-    private int map(byte b)                                                             { return (b & 0x00ff); }
+    private void closeWriter()                                                          { synchronized(lock) { writerClosed = true; lock.notifyAll(); } }
 
-    private final class RingInputStream extends InputStream {
-        private boolean strmClsd = false;
+    private int nextByte()                                                              { int i = nextGetIndex(); return ((i < 0) ? -1 : (buffer[i] & 0x00ff)); }
 
-        public RingInputStream()                                                           { super(); }
+    private void putByte(int aByte)                                                     { int i = nextPutIndex(); buffer[i] = (byte)(aByte & 0x00ff); }
+
+    private int transferOut(@NotNull ByteBuffer dst) {
+        int cnt = get2(dst, dst.position(), dst.remaining());
+        if(cnt > 0) dst.position(dst.position() + cnt);
+        return cnt;
+    }
+
+    public final class RingInputStream extends InputStream {
+        private       boolean           strmClsd = false;
+        private final Supplier<Boolean> stopOn   = () -> (strmClsd || writerClosed);
+
+        private RingInputStream()                                                          { super(); }
 
         public int available()                                                             { return ByteRingBuffer.this.available(); }
 
-        public @Override void close()                                                      { doLocked(() -> strmClsd = true); }
+        public @Override void close()                                                      { synchronized(lock) { strmClsd = true; lock.notifyAll(); } }
 
-        public @Override int read() throws IOException                                     { return foo(() -> bar(get2())).orElse(-1); }
+        public @Override int read() throws IOException                                     { synchronized(lock) { return (await() ? -1 : nextByte()); } }
 
-        public @Override int read(byte @NotNull [] b, int off, int len) throws IOException { return foo(() -> get2(b, off, len)).orElse(-1); }
+        public @Override int read(byte @NotNull [] b, int off, int len) throws IOException {
+            if(isEmptyRange(b, off, len)) return 0;
+            synchronized(lock) { return (await() ? -1 : get2(b, off, len)); }
+        }
+
+        /**
+         * Reads up to <code>len</code> bytes, waiting no longer than the given timeout for data to become available.
+         *
+         * @return The number of bytes read, zero if the timeout expired, or -1 at end-of-stream.
+         *
+         * @throws IOException If the thread was interrupted while waiting.
+         */
+        public int read(byte @NotNull [] b, int off, int len, long timeout, @NotNull TimeUnit unit) throws IOException {
+            if(isEmptyRange(b, off, len)) return 0;
+            synchronized(lock) {
+                try { return (awaitData(stopOn, unit.toNanos(timeout)) ? -1 : get2(b, off, len)); } catch(InterruptedException e) { throw new InterruptedIOException(); }
+            }
+        }
 
         public @Override long skip(long n)                                                 { return ByteRingBuffer.this.skip(n); }
 
-        private <T> Optional<T> foo(@NotNull Supplier<T> s) throws IOException             { try { return waitFor(() -> strmClsd, s); } catch(Exception e) { throw new InterruptedIOException(); } }
+        private boolean await() throws IOException                                         { try { return awaitData(stopOn); } catch(InterruptedException e) { throw new InterruptedIOException(); } }
     }
 
-    private final class RingOutputStream extends OutputStream {
+    public final class RingOutputStream extends OutputStream {
 
         private boolean strmClsd = false;
 
-        public RingOutputStream()                                                            { super(); }
+        private RingOutputStream()                                                           { super(); }
 
-        public @Override void close()                                                        { doLocked(() -> strmClsd = true); }
+        public @Override void close()                                                        { synchronized(lock) { strmClsd = true; closeWriter(); } }
 
-        public @Override void write(byte @NotNull [] b, int off, int len) throws IOException { foo(() -> put2(b, off, len)); }
+        public @Override void write(byte @NotNull [] b, int off, int len) throws IOException {
+            if(isEmptyRange(b, off, len)) return;
+            synchronized(lock) { try { check(); put2(b, off, len); } finally { lock.notify(); } }
+        }
+
+        public @Override void write(int b) throws IOException                                { synchronized(lock) { try { check(); putByte(b); } finally { lock.notify(); } } }
+
+        private void check() throws IOException                                              { if(closed || strmClsd) throw new IOException(msgs.getString("msg.err.output_stream_closed")); }
+    }
+
+    public final class RingSourceChannel implements ReadableByteChannel {
+        private       boolean           open   = true;
+        private final Supplier<Boolean> stopOn = () -> (!open || writerClosed);
+
+        private RingSourceChannel() { }
+
+        public int available()                                                            { return ByteRingBuffer.this.available(); }
+
+        public @Override void close()                                                     { synchronized(lock) { open = false; lock.notifyAll(); } }
 
-        public @Override void write(int b) throws IOException                                { foo(() -> put2((byte)(b & 0x00ff))); }
+        public @Override boolean isOpen()                                                 { synchronized(lock) { return (open && !closed); } }
+
+        /**
+         * Reads bytes into the given buffer, waiting until at least one byte is available.
+         *
+         * @return The number of bytes read or -1 at end-of-stream.
+         */
+        public @Override int read(@NotNull ByteBuffer dst) throws IOException {
+            synchronized(lock) {
+                if(!open) throw new ClosedChannelException();
+                if(!dst.hasRemaining()) return 0;
+                try { return (awaitData(stopOn) ? -1 : transferOut(dst)); } catch(InterruptedException e) { throw new InterruptedIOException(); }
+            }
+        }
+
+        /**
+         * Reads bytes into the given buffer, waiting no longer than the given timeout for at least one byte to become available.
+         *
+         * @return The number of bytes read, zero if the timeout expired, or -1 at end-of-stream.
+         */
+        public int read(@NotNull ByteBuffer dst, long timeout, @NotNull TimeUnit unit) throws IOException {
+            synchronized(lock) {
+                if(!open) throw new ClosedChannelException();
+                if(!dst.hasRemaining()) return 0;
+                try { return (awaitData(stopOn, unit.toNanos(timeout)) ? -1 : transferOut(dst)); } catch(InterruptedException e) { throw new InterruptedIOException(); }
+            }
+        }
+
+        /**
+         * Reads whatever bytes are available right now without waiting.
+         *
+         * @return The number of bytes read, which may be zero, or -1 at end-of-stream.
+         */
+        public int readAvailable(@NotNull ByteBuffer dst) throws IOException {
+            synchronized(lock) {
+                if(!open) throw new ClosedChannelException();
+                return (((head == tail) && (closed || writerClosed)) ? -1 : transferOut(dst));
+            }
+        }
+    }
 
-        private void foo(@NotNull Runnable runnable) throws IOException {
-            if(getLocked(() -> {
-                if(closed || strmClsd) return true;
-                runnable.run();
-                return false;
-            })) throw new IOException(msgs.getString("msg.err.output_stream_closed"));
+    public final class RingSinkChannel implements WritableByteChannel {
+        private boolean open = true;
+
+        private RingSinkChannel() { }
+
+        public @Override void close()                                                     { synchronized(lock) { open = false; closeWriter(); } }
+
+        public @Override boolean isOpen()                                                 { synchronized(lock) { return (open && !closed); } }
+
+        public @Override int write(@NotNull ByteBuffer src) throws IOException {
+            synchronized(lock) {
+                try {
+                    if(!open) throw new ClosedChannelException();
+                    if(closed) throw new IOException(msgs.getString("msg.err.ringbuff.buffer_is_closed"));
+                    if(!src.hasRemaining()) return 0;
+                    int cnt = src.remaining();
+                    put2(src, src.position(), cnt);
+                    src.position(src.position() + cnt);
+                    return cnt;
+                }
+                finally {
+                    lock.notify();
+                }
+            }
         }
     }
 }
@@ -0,0 +1,369 @@
+package com.projectgalen.lib.utils.collections.ring;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: ConcurrentByteRingBuffer.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded byte ring buffer that does not use a monitor. The read and write positions are ever increasing sequences, each on its own cache line, and the capacity is always a
+ * power of two.
+ * <p>
+ * In {@link Mode#SINGLE_PRODUCER} mode exactly one thread may write and one thread may read. In {@link Mode#MULTI_PRODUCER} mode any number of threads may write, each write
+ * claiming its own region of the buffer so that the bytes from a single write are never interleaved with the bytes of another, while still only one thread may read.
+ * <p>
+ * Unlike {@link ByteRingBuffer} this buffer never grows. Writers wait, according to the {@link WaitStrategy}, when the buffer is full.
+ * <p>
+ * The bulk methods check the offset and length against the array before anything is claimed, so a bad range throws an {@link IndexOutOfBoundsException} without leaving a
+ * claimed region that would never be published and would stall every later writer.
+ */
+@SuppressWarnings("unused")
+public class ConcurrentByteRingBuffer implements AutoCloseable {
+
+    public enum Mode { SINGLE_PRODUCER, MULTI_PRODUCER }
+
+    private static final PGResourceBundle msgs         = PGResources.msgs();
+    private static final int              SPIN_TRIES   = 100;
+    private static final int              YIELD_TRIES  = 200;
+    private static final long             PARK_NANOS   = 1000L;
+    private static final int              DEFAULT_SIZE = (64 * 1024);
+
+    private final    byte[]        buffer;
+    private final    int           mask;
+    private final    Mode          mode;
+    private final    WaitStrategy  strategy;
+    private final    Sequence      readSeq  = new Sequence();
+    private final    Sequence      writeSeq = new Sequence();
+    private final    Sequence      claimSeq;
+    private final    ReentrantLock lock;
+    private final    Condition     changed;
+    private final    AtomicInteger waiters;
+    private volatile boolean       closed   = false;
+
+    public ConcurrentByteRingBuffer() {
+        this(DEFAULT_SIZE, Mode.SINGLE_PRODUCER, WaitStrategy.PARK);
+    }
+
+    public ConcurrentByteRingBuffer(int capacity) {
+        this(capacity, Mode.SINGLE_PRODUCER, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a new ring buffer.
+     *
+     * @param capacity The capacity. Rounded up to the next power of two.
+     * @param mode     Whether one or many threads will be writing.
+     * @param strategy How threads wait when the buffer is empty or full.
+     */
+    public ConcurrentByteRingBuffer(int capacity, @NotNull Mode mode, @NotNull WaitStrategy strategy) {
+        int cap = ((capacity <= 1) ? 2 : Integer.highestOneBit(capacity - 1) << 1);
+        if(cap <= 0) throw new IllegalArgumentException(msgs.getString("msg.err.ringbuff.buffer_too_large"));
+        this.buffer   = new byte[cap];
+        this.mask     = (cap - 1);
+        this.mode     = mode;
+        this.strategy = strategy;
+        this.claimSeq = ((mode == Mode.MULTI_PRODUCER) ? new Sequence() : writeSeq);
+        this.lock     = ((strategy == WaitStrategy.BLOCKING) ? new ReentrantLock() : null);
+        this.changed  = ((lock == null) ? null : lock.newCondition());
+        this.waiters  = ((lock == null) ? null : new AtomicInteger());
+    }
+
+    public int available() {
+        return (int)(writeSeq.get() - readSeq.get());
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    public @Override void close() {
+        closed = true;
+        signal();
+    }
+
+    public @NotNull Mode getMode() {
+        return mode;
+    }
+
+    public @NotNull WaitStrategy getWaitStrategy() {
+        return strategy;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public boolean isEmpty() {
+        return (writeSeq.get() == readSeq.get());
+    }
+
+    /**
+     * Writes one byte if there is room.
+     *
+     * @param aByte The byte.
+     *
+     * @return <code>true</code> if the byte was written or <code>false</code> if the buffer is full.
+     *
+     * @throws IllegalStateException If the buffer is closed.
+     */
+    public boolean offer(int aByte) {
+        if(closed) throw closedError();
+        long seq = claim(1);
+        if(seq < 0) return false;
+        buffer[(int)(seq & mask)] = (byte)aByte;
+        publish(seq, 1);
+        return true;
+    }
+
+    /**
+     * Writes as many bytes as there is room for without waiting.
+     *
+     * @return The number of bytes written.
+     *
+     * @throws IllegalStateException     If the buffer is closed.
+     * @throws IndexOutOfBoundsException If the range is not inside <code>buf</code>.
+     */
+    public int offer(byte @NotNull [] buf, int off, int len) {
+        Objects.checkFromIndexSize(off, len, buf.length);
+        if(closed) throw closedError();
+        while(len > 0) {
+            int cnt = Math.min(len, remainingCapacity());
+            if(cnt <= 0) break;
+            long seq = claim(cnt);
+            if(seq >= 0) {
+                copyIn(seq, buf, off, cnt);
+                publish(seq, cnt);
+                return cnt;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Reads one byte without waiting.
+     *
+     * @return The byte, -1 if the buffer is closed and empty, or -2 if the buffer is empty but still open.
+     */
+    public int poll() {
+        long head = readSeq.get();
+        if(writeSeq.get() == head) return ((closed && (writeSeq.get() == head)) ? -1 : -2);
+        int b = (buffer[(int)(head & mask)] & 0x00ff);
+        readSeq.set(head + 1);
+        signal();
+        return b;
+    }
+
+    /**
+     * Reads as many bytes as are available, up to <code>len</code>, without waiting.
+     *
+     * @return The number of bytes read, which may be zero, or -1 if the buffer is closed and empty.
+     *
+     * @throws IndexOutOfBoundsException If the range is not inside <code>buf</code>.
+     */
+    public int poll(byte @NotNull [] buf, int off, int len) {
+        Objects.checkFromIndexSize(off, len, buf.length);
+        long head  = readSeq.get();
+        int  avail = (int)(writeSeq.get() - head);
+        if(avail == 0) return ((closed && (writeSeq.get() == head)) ? -1 : 0);
+        int cnt = Math.min(avail, len);
+        copyOut(head, buf, off, cnt);
+        readSeq.set(head + cnt);
+        signal();
+        return cnt;
+    }
+
+    /**
+     * Writes one byte, waiting for room if the buffer is full.
+     *
+     * @throws IllegalStateException If the buffer is closed.
+     * @throws InterruptedException  If the thread is interrupted while waiting.
+     */
+    public void put(int aByte) throws InterruptedException {
+        for(int tries = 0; !offer(aByte); ) tries = idle(tries, 1);
+    }
+
+    /**
+     * Writes all the bytes, waiting for room as needed. In {@link Mode#MULTI_PRODUCER} mode the bytes are written as one unit so <code>len</code> cannot be larger than the
+     * capacity.
+     *
+     * @throws IllegalStateException     If the buffer is closed.
+     * @throws IllegalArgumentException  If <code>len</code> is larger than the capacity in {@link Mode#MULTI_PRODUCER} mode.
+     * @throws IndexOutOfBoundsException If the range is not inside <code>buf</code>.
+     * @throws InterruptedException      If the thread is interrupted while waiting.
+     */
+    public void put(byte @NotNull [] buf, int off, int len) throws InterruptedException {
+        Objects.checkFromIndexSize(off, len, buf.length);
+        if((mode == Mode.MULTI_PRODUCER) && (len > buffer.length)) throw new IllegalArgumentException(msgs.getString("msg.err.ringbuff.buffer_too_large"));
+        while(len > 0) {
+            if(closed) throw closedError();
+            int  cnt = ((mode == Mode.MULTI_PRODUCER) ? len : Math.min(len, remainingCapacity()));
+            long seq = ((cnt > 0) ? claim(cnt) : -1);
+            if(seq < 0) {
+                int need = ((mode == Mode.MULTI_PRODUCER) ? len : 1);
+                for(int tries = 0; !closed && (remainingCapacity() < need); ) tries = idle(tries, need);
+                continue;
+            }
+            copyIn(seq, buf, off, cnt);
+            publish(seq, cnt);
+            off += cnt;
+            len -= cnt;
+        }
+    }
+
+    public void put(byte @NotNull [] buf) throws InterruptedException {
+        put(buf, 0, buf.length);
+    }
+
+    public int remainingCapacity() {
+        return (buffer.length - (int)(claimSeq.get() - readSeq.get()));
+    }
+
+    /**
+     * Reads one byte, waiting for one to become available.
+     *
+     * @return The byte or -1 if the buffer is closed and empty.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public int take() throws InterruptedException {
+        for(int tries = 0; ; ) {
+            int b = poll();
+            if(b != -2) return b;
+            tries = idle(tries, 0);
+        }
+    }
+
+    /**
+     * Reads at least one byte, and up to <code>len</code> bytes, waiting for data to become available.
+     *
+     * @return The number of bytes read or -1 if the buffer is closed and empty.
+     *
+     * @throws IndexOutOfBoundsException If the range is not inside <code>buf</code>.
+     * @throws InterruptedException      If the thread is interrupted while waiting.
+     */
+    public int take(byte @NotNull [] buf, int off, int len) throws InterruptedException {
+        Objects.checkFromIndexSize(off, len, buf.length);
+        if(len == 0) return 0;
+        for(int tries = 0; ; ) {
+            int cnt = poll(buf, off, len);
+            if(cnt != 0) return cnt;
+            tries = idle(tries, 0);
+        }
+    }
+
+    public int take(byte @NotNull [] buf) throws InterruptedException {
+        return take(buf, 0, buf.length);
+    }
+
+    private long claim(int cnt) {
+        if(mode == Mode.SINGLE_PRODUCER) {
+            long tail = writeSeq.get();
+            return (((tail - readSeq.get() + cnt) > buffer.length) ? -1 : tail);
+        }
+        while(true) {
+            long tail = claimSeq.get();
+            if((tail - readSeq.get() + cnt) > buffer.length) return -1;
+            if(claimSeq.compareAndSet(tail, (tail + cnt))) return tail;
+            Thread.onSpinWait();
+        }
+    }
+
+    private @NotNull IllegalStateException closedError() {
+        return new IllegalStateException(msgs.getString("msg.err.ringbuff.buffer_is_closed"));
+    }
+
+    private void copyIn(long seq, byte @NotNull [] buf, int off, int len) {
+        int idx = (int)(seq & mask);
+        int l1  = Math.min(len, (buffer.length - idx));
+        System.arraycopy(buf, off, buffer, idx, l1);
+        if(l1 < len) System.arraycopy(buf, (off + l1), buffer, 0, (len - l1));
+    }
+
+    private void copyOut(long seq, byte @NotNull [] buf, int off, int len) {
+        int idx = (int)(seq & mask);
+        int l1  = Math.min(len, (buffer.length - idx));
+        System.arraycopy(buffer, idx, buf, off, l1);
+        if(l1 < len) System.arraycopy(buffer, 0, buf, (off + l1), (len - l1));
+    }
+
+    /**
+     * Waits a little while according to the wait strategy.
+     *
+     * @param tries    The number of times the caller has already waited.
+     * @param needRoom The number of free bytes the caller is waiting for or zero if the caller is waiting for data.
+     *
+     * @return The new number of tries.
+     */
+    private int idle(int tries, int needRoom) throws InterruptedException {
+        if(Thread.interrupted()) throw new InterruptedException();
+        switch(strategy) {/*@f0*/
+            case SPIN:     Thread.onSpinWait(); break;
+            case YIELD:    if(tries < SPIN_TRIES) Thread.onSpinWait(); else Thread.yield(); break;
+            case PARK:     if(tries < SPIN_TRIES) Thread.onSpinWait(); else if(tries < YIELD_TRIES) Thread.yield(); else LockSupport.parkNanos(this, PARK_NANOS); break;
+            case BLOCKING: if(tries < SPIN_TRIES) Thread.onSpinWait(); else block(needRoom); break;
+        }/*@f1*/
+        return (tries + 1);
+    }
+
+    private void block(int needRoom) throws InterruptedException {
+        lock.lock();
+        try {
+            waiters.incrementAndGet();
+            try {
+                while(!closed && ((needRoom == 0) ? isEmpty() : (remainingCapacity() < needRoom))) changed.await();
+            }
+            finally {
+                waiters.decrementAndGet();
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(long seq, int len) {
+        if(mode == Mode.MULTI_PRODUCER) {
+            for(int tries = 0; writeSeq.get() != seq; tries++) { if(tries < SPIN_TRIES) Thread.onSpinWait(); else Thread.yield(); }
+        }
+        writeSeq.set(seq + len);
+        signal();
+    }
+
+    private void signal() {
+        if(lock != null) {
+            VarHandle.fullFence();
+            if(waiters.get() > 0) {
+                lock.lock();
+                try { changed.signalAll(); } finally { lock.unlock(); }
+            }
+        }
+    }
+}
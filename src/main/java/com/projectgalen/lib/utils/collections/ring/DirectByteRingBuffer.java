@@ -0,0 +1,178 @@
+package com.projectgalen.lib.utils.collections.ring;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: DirectByteRingBuffer.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A byte ring buffer backed by a direct {@link ByteBuffer} so that its contents live outside of the Java heap. Data can be moved straight between the ring and a
+ * {@link ByteBuffer} or a channel ({@link java.nio.channels.FileChannel}, {@link java.nio.channels.SocketChannel}, etc.) without an intermediate array.
+ * <p>
+ * The channel transfer methods hold the buffer's lock while the channel is being read or written so they should only be used with channels that will not block for long.
+ */
+@SuppressWarnings("unused")
+public class DirectByteRingBuffer extends AbstractRingBuffer<ByteBuffer> {
+
+    public DirectByteRingBuffer(int initSize)                                           { super(initSize); }
+
+    public DirectByteRingBuffer()                                                       { super(); }
+
+    public int get()                                                                    { synchronized(lock) { try { return (closed ? -2 : nextByte()); } finally { lock.notify(); } } }
+
+    public int get(byte @NotNull [] buf, int off, int len)                              { return get1(buf, off, len); }
+
+    public int get(byte @NotNull [] buf)                                                { return get1(buf, 0, buf.length); }
+
+    public void put(int aByte)                                                          { synchronized(lock) { try { if(closed) throw closedError(); putByte(aByte); } finally { lock.notify(); } } }
+
+    public void put(byte @NotNull [] buf, int off, int len)                             { put1(buf, off, len); }
+
+    public void put(byte @NotNull [] buf)                                               { put1(buf, 0, buf.length); }
+
+    /**
+     * Copies as many bytes as are available, up to <code>dst.remaining()</code>, into the given buffer and advances its position.
+     *
+     * @param dst The destination buffer.
+     *
+     * @return The number of bytes copied or -1 if the ring buffer is closed.
+     */
+    public int read(@NotNull ByteBuffer dst) {
+        synchronized(lock) {
+            try {
+                int cnt = get2(dst, dst.position(), dst.remaining());
+                if(cnt > 0) dst.position(dst.position() + cnt);
+                return cnt;
+            }
+            finally {
+                lock.notify();
+            }
+        }
+    }
+
+    /**
+     * Reads bytes from the given channel directly into the ring buffer, growing the ring buffer only if it is full.
+     *
+     * @param channel The channel.
+     * @param maxLen  The maximum number of bytes to read.
+     *
+     * @return The number of bytes read or -1 if the channel has reached end-of-stream.
+     *
+     * @throws IOException           If an I/O error occurs.
+     * @throws IllegalStateException If the ring buffer is closed.
+     */
+    public int readFrom(@NotNull ReadableByteChannel channel, int maxLen) throws IOException {
+        synchronized(lock) {
+            try {
+                if(closed) throw closedError();
+                int total = 0;
+                while(total < maxLen) {
+                    int        len  = Math.min(contiguousSpace(1), (maxLen - total));
+                    ByteBuffer view = buffer.duplicate().limit(tail + len).position(tail);
+                    int        cnt  = channel.read(view);
+                    if(cnt < 0) return ((total == 0) ? -1 : total);
+                    produced(cnt);
+                    total += cnt;
+                    if(cnt < len) break;
+                }
+                return total;
+            }
+            finally {
+                lock.notify();
+            }
+        }
+    }
+
+    public int wget(byte @NotNull [] buf, int off, int len) throws InterruptedException { return wget1(buf, off, len); }
+
+    public int wget(byte @NotNull [] buf) throws InterruptedException                   { return wget(buf, 0, buf.length); }
+
+    public int wget() throws InterruptedException                                       { synchronized(lock) { return (awaitData(NEVER) ? -1 : nextByte()); } }
+
+    /**
+     * Copies all the remaining bytes of the given buffer into the ring buffer, growing it if needed, and advances the buffer's position.
+     *
+     * @param src The source buffer.
+     *
+     * @return The number of bytes copied.
+     *
+     * @throws IllegalStateException If the ring buffer is closed.
+     */
+    public int write(@NotNull ByteBuffer src) {
+        int cnt = src.remaining();
+        put1(src, src.position(), cnt);
+        src.position(src.position() + cnt);
+        return cnt;
+    }
+
+    /**
+     * Writes bytes from the ring buffer directly to the given channel.
+     *
+     * @param channel The channel.
+     * @param maxLen  The maximum number of bytes to write.
+     *
+     * @return The number of bytes written or -1 if the ring buffer is closed.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public int writeTo(@NotNull WritableByteChannel channel, int maxLen) throws IOException {
+        synchronized(lock) {
+            try {
+                if(closed) return -1;
+                int total = 0;
+                while(total < maxLen) {
+                    int len = Math.min(contiguousData(), (maxLen - total));
+                    if(len == 0) break;
+                    int cnt = channel.write(buffer.duplicate().limit(head + len).position(head));
+                    consumed(cnt);
+                    total += cnt;
+                    if(cnt < len) break;
+                }
+                return total;
+            }
+            finally {
+                lock.notify();
+            }
+        }
+    }
+
+    protected @Override void copyIn(@NotNull Object src, int srcOff, int dstIdx, int len) {
+        if(src instanceof byte[] b) buffer.put(dstIdx, b, srcOff, len);
+        else buffer.put(dstIdx, (ByteBuffer)src, srcOff, len);
+    }
+
+    protected @Override void copyOut(int srcIdx, @NotNull Object dst, int dstOff, int len) {
+        if(dst instanceof byte[] b) buffer.get(srcIdx, b, dstOff, len);
+        else ((ByteBuffer)dst).put(dstOff, buffer, srcIdx, len);
+    }
+
+    protected @Override @NotNull ByteBuffer createArray(int size)                       { return ByteBuffer.allocateDirect(size); }
+
+    private int nextByte()                                                              { int i = nextGetIndex(); return ((i < 0) ? -1 : (buffer.get(i) & 0x00ff)); }
+
+    private void putByte(int aByte)                                                     { int i = nextPutIndex(); buffer.put(i, (byte)(aByte & 0x00ff)); }
+}
@@ -0,0 +1,75 @@
+package com.projectgalen.lib.utils.collections.ring;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: LongRingBuffer.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.NoSuchElementException;
+
+@SuppressWarnings("unused")
+public class LongRingBuffer extends AbstractRingBuffer<long[]> {
+
+    public LongRingBuffer(int initSize)                                                 { super(initSize); }
+
+    public LongRingBuffer()                                                             { super(); }
+
+    /**
+     * Removes and returns the value at the head of the buffer.
+     *
+     * @return The value.
+     *
+     * @throws NoSuchElementException If the buffer is empty.
+     * @throws IllegalStateException  If the buffer is closed.
+     */
+    public long get()                                                                   { synchronized(lock) { try { return next(); } finally { lock.notify(); } } }
+
+    public long get(long defaultValue)                                                  { synchronized(lock) { try { return ((closed || (head == tail)) ? defaultValue : next()); } finally { lock.notify(); } } }
+
+    public int get(long @NotNull [] buf, int off, int len)                              { return get1(buf, off, len); }
+
+    public int get(long @NotNull [] buf)                                                { return get1(buf, 0, buf.length); }
+
+    public void put(long value)                                                         { synchronized(lock) { try { if(closed) throw closedError(); int i = nextPutIndex(); buffer[i] = value; } finally { lock.notify(); } } }
+
+    public void put(long @NotNull [] buf, int off, int len)                             { put1(buf, off, len); }
+
+    public void put(long @NotNull [] buf)                                               { put1(buf, 0, buf.length); }
+
+    public int wget(long @NotNull [] buf, int off, int len) throws InterruptedException { return wget1(buf, off, len); }
+
+    public int wget(long @NotNull [] buf) throws InterruptedException                   { return wget(buf, 0, buf.length); }
+
+    /**
+     * Removes and returns the value at the head of the buffer, waiting for one to become available if the buffer is empty.
+     *
+     * @return The value.
+     *
+     * @throws IllegalStateException If the buffer is closed.
+     * @throws InterruptedException  If the thread was interrupted while waiting.
+     */
+    public long wget() throws InterruptedException                                      { synchronized(lock) { awaitData(NEVER); return next(); } }
+
+    protected @Override long @NotNull [] createArray(int size)                          { return new long[size]; }
+
+    private long next()                                                                 { return buffer[nextIndex()]; }
+}
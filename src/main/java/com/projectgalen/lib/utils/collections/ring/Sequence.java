@@ -0,0 +1,63 @@
+package com.projectgalen.lib.utils.collections.ring;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: Sequence.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+abstract class SequenceLhsPadding {
+    protected long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    protected volatile long value;
+}
+
+abstract class SequenceRhsPadding extends SequenceValue {
+    protected long p11, p12, p13, p14, p15, p16, p17;
+}
+
+/**
+ * A <code>long</code> counter padded on both sides so that it sits on a cache line of its own. The padding lives in the superclasses because the JVM does not move fields
+ * across the class hierarchy.
+ */
+@SuppressWarnings("unused")
+final class Sequence extends SequenceRhsPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try { VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class); }
+        catch(ReflectiveOperationException e) { throw new ExceptionInInitializerError(e); }
+    }
+
+    public Sequence()                                       { }
+
+    public boolean compareAndSet(long expected, long value) { return VALUE.compareAndSet(this, expected, value); }
+
+    public long get()                                       { return (long)VALUE.getAcquire(this); }
+
+    public void set(long value)                             { VALUE.setRelease(this, value); }
+
+    public void setVolatile(long value)                     { VALUE.setVolatile(this, value); }
+}
@@ -0,0 +1,36 @@
+package com.projectgalen.lib.utils.collections.ring;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: WaitStrategy.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+/**
+ * How a thread waits on a {@link ConcurrentByteRingBuffer} when there is no data to read or no room to write.
+ * <ul>
+ *     <li>{@link #SPIN} - Busy spin. Lowest latency but burns a whole core.</li>
+ *     <li>{@link #YIELD} - Spin briefly and then {@link Thread#yield()}.</li>
+ *     <li>{@link #PARK} - Spin, then yield, then park for short periods.</li>
+ *     <li>{@link #BLOCKING} - Block on a condition until the other side signals. Lowest CPU use but highest latency.</li>
+ * </ul>
+ */
+public enum WaitStrategy {
+    SPIN, YIELD, PARK, BLOCKING
+}
@@ -0,0 +1,109 @@
+package com.projectgalen.lib.utils.io;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: MappedFileInputStream.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An {@link InputStream} that reads a file through read-only memory mappings. The file is mapped one window at a time so files of any size can be read, and the data is never
+ * copied onto the Java heap until the caller reads it.
+ */
+public class MappedFileInputStream extends InputStream {
+
+    private static final PGResourceBundle msgs        = PGResources.msgs();
+    private static final long             WINDOW_SIZE = (256L * 1024L * 1024L);
+
+    private final FileChannel      channel;
+    private final long             size;
+    private       long             windowPos = 0;
+    private       MappedByteBuffer window    = null;
+    private       boolean          closed    = false;
+
+    public MappedFileInputStream(@NotNull Path path) throws IOException {
+        super();
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size    = channel.size();
+    }
+
+    public @Override int available() throws IOException {
+        ensureOpen();
+        return (int)Math.min((size - position()), Integer.MAX_VALUE);
+    }
+
+    public @Override void close() throws IOException {
+        if(!closed) {
+            closed = true;
+            window = null;
+            channel.close();
+        }
+    }
+
+    public @Override int read() throws IOException {
+        return (nextWindow() ? (window.get() & 0x00ff) : -1);
+    }
+
+    public @Override int read(byte @NotNull [] b, int off, int len) throws IOException {
+        if(len == 0) return 0;
+        if(!nextWindow()) return -1;
+        int cc = Math.min(len, window.remaining());
+        window.get(b, off, cc);
+        return cc;
+    }
+
+    public @Override long skip(long n) throws IOException {
+        ensureOpen();
+        long pos = position();
+        long cc  = Math.max(0, Math.min(n, (size - pos)));
+        if(cc > 0) {
+            windowPos = (pos + cc);
+            window    = null;
+        }
+        return cc;
+    }
+
+    private void ensureOpen() throws IOException {
+        if(closed) throw new IOException(msgs.getString("msg.err.input_stream_closed"));
+    }
+
+    private long position() {
+        return ((window == null) ? windowPos : (windowPos + window.position()));
+    }
+
+    private boolean nextWindow() throws IOException {
+        ensureOpen();
+        if((window != null) && window.hasRemaining()) return true;
+        if(window != null) windowPos += window.capacity();
+        if(windowPos >= size) return false;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowPos, Math.min(WINDOW_SIZE, (size - windowPos)));
+        return true;
+    }
+}
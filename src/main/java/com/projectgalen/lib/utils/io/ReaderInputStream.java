@@ -18,43 +18,124 @@ package com.projectgalen.lib.utils.io;
 // ================================================================================================================================
 
 import com.projectgalen.lib.utils.IO;
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
-import java.util.concurrent.atomic.AtomicReference;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 
-public class ReaderInputStream extends FilterInputStream {
+/**
+ * An {@link InputStream} that reads characters from a {@link Reader} and encodes them on demand with a {@link CharsetEncoder}. No threads are used and the memory used is limited
+ * to one small character buffer and one small byte buffer.
+ */
+public class ReaderInputStream extends InputStream {
 
-    private final @SuppressWarnings("FieldCanBeLocal") Thread                     thread;
-    private final                                      AtomicReference<Exception> threadError = new AtomicReference<>(null);
+    private static final PGResourceBundle msgs             = PGResources.msgs();
+    private static final int              CHAR_BUFFER_SIZE = 2048;
+
+    private final Reader         reader;
+    private final CharsetEncoder encoder;
+    private final CharBuffer     chars;
+    private final ByteBuffer     bytes;
+    private final boolean        closeReader;
+    private       boolean        eof     = false;
+    private       boolean        flushed = false;
+    private       boolean        closed  = false;
 
     public ReaderInputStream(@NotNull Reader reader, @NotNull Charset cs) throws IOException {
         this(reader, false, cs);
     }
 
     public ReaderInputStream(@NotNull Reader reader, boolean closeReaderWhenDone, @NotNull Charset cs) {
-        super(new PipedInputStream(1_048_576));
-        this.thread = new Thread(() -> runner(reader, cs, closeReaderWhenDone));
-        this.thread.setDaemon(true);
-        this.thread.start();
+        super();
+        this.reader      = reader;
+        this.closeReader = closeReaderWhenDone;
+        this.encoder     = cs.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.chars       = CharBuffer.allocate(CHAR_BUFFER_SIZE).flip();
+        this.bytes       = ByteBuffer.allocate((int)Math.ceil(CHAR_BUFFER_SIZE * encoder.maxBytesPerChar())).flip();
+    }
+
+    public @Override int available() throws IOException {
+        ensureOpen();
+        return bytes.remaining();
+    }
+
+    public @Override void close() throws IOException {
+        if(!closed) {
+            closed = true;
+            if(closeReader) reader.close();
+        }
     }
 
     public @Override int read(byte @NotNull [] b, int off, int len) throws IOException {
-        int cc = super.read(b, off, len);
-        if((cc == -1) && (threadError.get() instanceof IOException e)) throw e;
+        ensureOpen();
+        if(len == 0) return 0;
+        if(!fill()) return -1;
+        int cc = Math.min(len, bytes.remaining());
+        bytes.get(b, off, cc);
         return cc;
     }
 
     public @Override int read() throws IOException {
-        int b = super.read();
-        if((b == -1) && (threadError.get() instanceof IOException e)) throw e;
-        return b;
+        ensureOpen();
+        return (fill() ? (bytes.get() & 0x00ff) : -1);
+    }
+
+    public @Override long skip(long n) throws IOException {
+        ensureOpen();
+        long skipped = 0;
+        while((skipped < n) && fill()) {
+            int cc = (int)Math.min((n - skipped), bytes.remaining());
+            bytes.position(bytes.position() + cc);
+            skipped += cc;
+        }
+        return skipped;
     }
 
-    private void runner(@NotNull Reader reader, @NotNull Charset cs, boolean closeReader) {
-        try(Writer writer = new OutputStreamWriter(new PipedOutputStream((PipedInputStream)in), cs)) { IO.copy(reader, writer, false, false); }
-        catch(IOException e) { threadError.set(e); }
-        finally { if(closeReader) IO.closeQuietly(reader); }
+    private void ensureOpen() throws IOException {
+        if(closed) throw new IOException(msgs.getString("msg.err.input_stream_closed"));
+    }
+
+    /**
+     * Makes sure there are encoded bytes waiting to be read, reading and encoding more characters if needed.
+     *
+     * @return <code>false</code> if there are no more bytes.
+     */
+    private boolean fill() throws IOException {
+        if(bytes.hasRemaining()) return true;
+        if(flushed) return false;
+
+        bytes.clear();
+        try {
+            while((bytes.position() == 0) && !flushed) {
+                if(!eof) {
+                    chars.compact();
+                    try { eof = (reader.read(chars) < 0); } finally { chars.flip(); }
+                    if(eof && closeReader) IO.closeQuietly(reader);
+                }
+
+                CoderResult cr = encoder.encode(chars, bytes, eof);
+                if(cr.isError()) cr.throwException();
+
+                if(eof && cr.isUnderflow()) {
+                    cr = encoder.flush(bytes);
+                    if(cr.isError()) cr.throwException();
+                    flushed = cr.isUnderflow();
+                }
+            }
+        }
+        finally {
+            bytes.flip();
+        }
+
+        return bytes.hasRemaining();
     }
 }
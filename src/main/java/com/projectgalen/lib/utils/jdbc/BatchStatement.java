@@ -0,0 +1,234 @@
+package com.projectgalen.lib.utils.jdbc;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: BatchStatement.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+
+import com.projectgalen.lib.utils.IO;
+import com.projectgalen.lib.utils.JDBC;
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+import com.projectgalen.lib.utils.delegates.ThrowingQuadConsumer;
+import com.projectgalen.lib.utils.errors.SQLRuntimeException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.nio.charset.Charset;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Executes one SQL statement many times with different parameters using JDBC batches. Rows of parameters are bound with {@link PreparedStatement#addBatch()} and the batch is
+ * sent to the database every <code>batchSize</code> rows. The parameter metadata is looked up once, through {@link JDBC#getParameterMetaData(String, PreparedStatement)}, instead
+ * of once per row.
+ * <p>
+ * If an {@link Executor} is given the batches are pipelined: two statements are prepared and, while one is executing its batch on the executor, the next batch is bound on the
+ * other. The batches are still executed one at a time and in order. Whether the binding actually overlaps the execution depends on the driver; drivers that serialize all
+ * work on a connection still work correctly, just without the overlap.
+ * <p>
+ * Instances are not thread-safe.
+ */
+@SuppressWarnings("unused")
+public final class BatchStatement implements AutoCloseable {
+
+    private static final PGResourceBundle msgs = PGResources.msgs();
+
+    private final PreparedStatement[]                                                                       statements;
+    private final ParameterMetaData                                                                         metaData;
+    private final Charset                                                                                   charset;
+    private final ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> otherHandler;
+    private final int                                                                                       batchSize;
+    private final Executor                                                                                  executor;
+    private final List<int[]>                                                                               batchCounts = new ArrayList<>();
+    private final List<List<Closeable>>                                                                     opened      = new ArrayList<>();
+    private       CompletableFuture<int[]>                                                                  pending     = null;
+    private       int                                                                                       current     = 0;
+    private       int                                                                                       rows        = 0;
+    private       boolean                                                                                   closed      = false;
+
+    public BatchStatement(@NotNull Connection conn, @NotNull String sql, int batchSize) throws SQLException {
+        this(conn, sql, batchSize, null);
+    }
+
+    public BatchStatement(@NotNull Connection conn, @NotNull String sql, int batchSize, @Nullable Executor executor) throws SQLException {
+        this(conn, sql, batchSize, JDBC.DEFAULT_CHARSET, JDBC.DEFAULT_OTHER_HANDLER, executor);
+    }
+
+    /**
+     * Creates a new batch statement.
+     *
+     * @param conn         The database connection.
+     * @param sql          The SQL to execute for every row.
+     * @param batchSize    The number of rows per batch.
+     * @param charset      The character set used to convert between bytes and characters when binding.
+     * @param otherHandler Binds values for parameter types that are not handled directly.
+     * @param executor     The executor used to run batches while the next one is bound or <code>null</code> to run them on the calling thread.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public BatchStatement(@NotNull Connection conn,
+                          @NotNull String sql,
+                          int batchSize,
+                          @NotNull Charset charset,
+                          @NotNull ThrowingQuadConsumer<PreparedStatement, ParameterMetaData, Integer, Object, SQLException> otherHandler,
+                          @Nullable Executor executor) throws SQLException {
+        this.batchSize    = Math.max(1, batchSize);
+        this.charset      = charset;
+        this.otherHandler = otherHandler;
+        this.executor     = executor;
+        this.statements   = new PreparedStatement[(executor == null) ? 1 : 2];
+
+        for(int i = 0; i < statements.length; i++) opened.add(new ArrayList<>());
+
+        try {
+            for(int i = 0; i < statements.length; i++) statements[i] = conn.prepareStatement(sql);
+            this.metaData = JDBC.getParameterMetaData(sql, statements[0]);
+        }
+        catch(SQLException e) {
+            closeStatements(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Binds a row of parameters and adds it to the current batch. If that fills the batch then it is executed.
+     *
+     * @param params The parameter values.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public void addRow(Object @NotNull ... params) throws SQLException {
+        ensureOpen();
+        PreparedStatement stmt = statements[current];
+        opened.get(current).addAll(JDBC.bindParameters(stmt, metaData, charset, otherHandler, params));
+        stmt.addBatch();
+        if(++rows == batchSize) executeCurrent();
+    }
+
+    public void addRows(@NotNull Iterable<Object[]> rows) throws SQLException {
+        for(Object[] row : rows) addRow(row);
+    }
+
+    /**
+     * Flushes the remaining rows and closes the statements.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public @Override void close() throws SQLException {
+        if(closed) return;
+        try {
+            flush();
+        }
+        catch(SQLException e) {
+            closeStatements(e);
+            throw e;
+        }
+        finally {
+            closed = true;
+        }
+        closeStatements(null);
+    }
+
+    /**
+     * Executes any rows that are still waiting in the current batch and waits for any batch that is still executing.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public void flush() throws SQLException {
+        ensureOpen();
+        if(rows > 0) executeCurrent();
+        awaitPending();
+    }
+
+    /**
+     * Returns the update counts of every batch executed so far, in the order the batches were executed.
+     *
+     * @return The update counts.
+     */
+    public @NotNull List<int[]> getBatchCounts() { return Collections.unmodifiableList(batchCounts); }
+
+    public int getBatchSize()                    { return batchSize; }
+
+    public int getPendingRowCount()              { return rows; }
+
+    public boolean isPipelined()                 { return (executor != null); }
+
+    private void awaitPending() throws SQLException {
+        if(pending != null) {
+            try {
+                batchCounts.add(pending.join());
+            }
+            catch(CompletionException e) {
+                Throwable t = e.getCause();
+                if((t instanceof SQLRuntimeException) && (t.getCause() != null)) t = t.getCause();
+                if(t instanceof SQLException sqlException) throw sqlException;
+                throw new SQLException(t);
+            }
+            finally {
+                pending = null;
+            }
+        }
+    }
+
+    private void closeStatements(@Nullable SQLException error) throws SQLException {
+        SQLException ex = error;
+        for(List<Closeable> streams : opened) closeStreams(streams);
+        for(PreparedStatement stmt : statements) {
+            if(stmt != null) {
+                try { stmt.close(); }
+                catch(SQLException e) { if(ex == null) ex = e; else ex.addSuppressed(e); }
+            }
+        }
+        if((error == null) && (ex != null)) throw ex;
+    }
+
+    private void ensureOpen() throws SQLException {
+        if(closed) throw new SQLException(msgs.getString("msg.err.jdbc.batch_closed"));
+    }
+
+    private void executeCurrent() throws SQLException {
+        PreparedStatement stmt    = statements[current];
+        List<Closeable>   streams = new ArrayList<>(opened.get(current));
+        rows = 0;
+        opened.get(current).clear();
+
+        if(executor == null) {
+            try { batchCounts.add(stmt.executeBatch()); }
+            finally { closeStreams(streams); }
+        }
+        else {
+            awaitPending();
+            pending = CompletableFuture.supplyAsync(() -> SQLRuntimeException.get(stmt::executeBatch), executor).whenComplete((counts, error) -> closeStreams(streams));
+            current = ((current + 1) % statements.length);
+        }
+    }
+
+    private static void closeStreams(@NotNull List<Closeable> streams) {
+        for(Closeable stream : streams) IO.closeQuietly(stream);
+    }
+}
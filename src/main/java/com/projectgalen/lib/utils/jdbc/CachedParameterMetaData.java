@@ -0,0 +1,168 @@
+package com.projectgalen.lib.utils.jdbc;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: CachedParameterMetaData.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+import org.jetbrains.annotations.NotNull;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A cached copy of a {@link ParameterMetaData}. The parameter count and types are read when the copy is made. Every other attribute is read from the driver the first time it
+ * is asked for and is then remembered, and so is the fact that the driver does not support it. Drivers that throw {@link SQLFeatureNotSupportedException} for attributes such as
+ * {@link #getPrecision(int)} therefore only fail when those attributes are actually used.
+ * <p>
+ * Some drivers make a network round trip for every call to {@link PreparedStatement#getParameterMetaData()}, so a copy can be cached and shared between statements prepared from
+ * the same SQL. Use {@link #forStatement(PreparedStatement)} to get a view of the shared copy that reads missing attributes through a particular statement.
+ */
+@SuppressWarnings("unused")
+public final class CachedParameterMetaData implements ParameterMetaData {
+
+    private static final PGResourceBundle msgs = PGResources.msgs();
+
+    private static final int MODE       = 0;
+    private static final int NULLABLE   = 1;
+    private static final int PRECISION  = 2;
+    private static final int SCALE      = 3;
+    private static final int SIGNED     = 4;
+    private static final int TYPE_NAME  = 5;
+    private static final int CLASS_NAME = 6;
+
+    private final Snapshot          snapshot;
+    private final PreparedStatement statement;
+    private       ParameterMetaData source;
+
+    public CachedParameterMetaData(@NotNull ParameterMetaData metaData) throws SQLException {
+        this.snapshot  = new Snapshot(metaData);
+        this.statement = null;
+        this.source    = metaData;
+    }
+
+    private CachedParameterMetaData(@NotNull Snapshot snapshot, @Nullable PreparedStatement statement) {
+        this.snapshot  = snapshot;
+        this.statement = statement;
+        this.source    = null;
+    }
+
+    /**
+     * Returns a view of this copy that reads attributes which have not been cached yet through the given statement. The view shares everything cached so far with this copy.
+     *
+     * @param statement The statement or <code>null</code> for a view that only answers from the cache.
+     *
+     * @return The view.
+     */
+    public @NotNull CachedParameterMetaData forStatement(@Nullable PreparedStatement statement) {
+        return new CachedParameterMetaData(snapshot, statement);
+    }
+
+    public @Override String getParameterClassName(int param) throws SQLException { return (String)attribute(CLASS_NAME, param); }
+
+    public @Override int getParameterCount()                                     { return snapshot.count; }
+
+    public @Override int getParameterMode(int param) throws SQLException         { return (Integer)attribute(MODE, param); }
+
+    public @Override int getParameterType(int param) throws SQLException         { return snapshot.types[index(param)]; }
+
+    public @Override String getParameterTypeName(int param) throws SQLException  { return (String)attribute(TYPE_NAME, param); }
+
+    public @Override int getPrecision(int param) throws SQLException             { return (Integer)attribute(PRECISION, param); }
+
+    public @Override int getScale(int param) throws SQLException                 { return (Integer)attribute(SCALE, param); }
+
+    public @Override int isNullable(int param) throws SQLException               { return (Integer)attribute(NULLABLE, param); }
+
+    public @Override boolean isSigned(int param) throws SQLException             { return (Boolean)attribute(SIGNED, param); }
+
+    public @Override boolean isWrapperFor(Class<?> iface)                        { return iface.isInstance(this); }
+
+    public @Override <T> T unwrap(Class<T> iface) throws SQLException {
+        if(iface.isInstance(this)) return iface.cast(this);
+        throw new SQLException(msgs.format("msg.err.jdbc.not_a_wrapper_for", iface.getName()));
+    }
+
+    private Object attribute(int attr, int param) throws SQLException {
+        int    i = index(param);
+        Object v = snapshot.attributes.get(attr);
+        if(v == null) v = load(attr);
+        if(v instanceof SQLFeatureNotSupportedException e) throw new SQLFeatureNotSupportedException(e.getMessage(), e.getSQLState(), e);
+        return ((Object[])v)[i];
+    }
+
+    private int index(int param) throws SQLException {
+        if((param < 1) || (param > snapshot.count)) throw new SQLException(msgs.format("msg.err.jdbc.param_index_out_of_range", param, snapshot.count));
+        return (param - 1);
+    }
+
+    private @NotNull Object load(int attr) throws SQLException {
+        Object[] values = new Object[snapshot.count];
+        try {
+            ParameterMetaData md = source();
+            for(int i = 0; i < values.length; i++) values[i] = read(md, attr, (i + 1));
+            snapshot.attributes.compareAndSet(attr, null, values);
+        }
+        catch(SQLFeatureNotSupportedException e) {
+            snapshot.attributes.compareAndSet(attr, null, e);
+        }
+        return snapshot.attributes.get(attr);
+    }
+
+    private @NotNull ParameterMetaData source() throws SQLException {
+        if(source == null) {
+            if(statement == null) throw new SQLFeatureNotSupportedException(msgs.getString("msg.err.jdbc.param_meta_data_unavailable"));
+            source = statement.getParameterMetaData();
+        }
+        return source;
+    }
+
+    private static Object read(@NotNull ParameterMetaData md, int attr, int param) throws SQLException {
+        return switch(attr) {/*@f0*/
+            case MODE      -> md.getParameterMode(param);
+            case NULLABLE  -> md.isNullable(param);
+            case PRECISION -> md.getPrecision(param);
+            case SCALE     -> md.getScale(param);
+            case SIGNED    -> md.isSigned(param);
+            case TYPE_NAME -> md.getParameterTypeName(param);
+            default        -> md.getParameterClassName(param);
+        };/*@f1*/
+    }
+
+    private static final class Snapshot {
+        private final int                          count;
+        private final int[]                        types;
+        private final AtomicReferenceArray<Object> attributes = new AtomicReferenceArray<>(CLASS_NAME + 1);
+
+        public Snapshot(@NotNull ParameterMetaData metaData) throws SQLException {
+            this.count = metaData.getParameterCount();
+            this.types = new int[count];
+            for(int i = 0; i < count; i++) types[i] = metaData.getParameterType(i + 1);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.projectgalen.lib.utils.jdbc;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: ResultRow.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+import com.projectgalen.lib.utils.io.ReaderInputStream;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.sql.Types.*;
+
+/**
+ * A reusable, typed view of the current row of a {@link ResultSet}. The result set metadata is read once when the view is created and the same view is handed to the caller for
+ * every row, so reading a row allocates nothing beyond what the driver itself allocates. The primitive getters do not box. Column indexes are 1-based, as in JDBC.
+ * <p>
+ * Because the view always reflects the current row it must not be kept after the callback it was passed to returns. Use {@link #toArray()} to keep a copy of a row.
+ */
+@SuppressWarnings("unused")
+public final class ResultRow {
+
+    private final ResultSet            resultSet;
+    private final ResultSetMetaData    metaData;
+    private final int                  columnCount;
+    private final String[]             columnLabels;
+    private final int[]                columnTypes;
+    private       Map<String, Integer> columnIndexes = null;
+    private       long                 rowNumber     = 0;
+
+    public ResultRow(@NotNull ResultSet resultSet) throws SQLException {
+        this.resultSet    = resultSet;
+        this.metaData     = resultSet.getMetaData();
+        this.columnCount  = metaData.getColumnCount();
+        this.columnLabels = new String[columnCount];
+        this.columnTypes  = new int[columnCount];
+
+        for(int i = 0; i < columnCount; i++) {
+            columnLabels[i] = metaData.getColumnLabel(i + 1);
+            columnTypes[i]  = metaData.getColumnType(i + 1);
+        }
+    }
+
+    public BigDecimal getBigDecimal(int column) throws SQLException            { return resultSet.getBigDecimal(column); }
+
+    public BigDecimal getBigDecimal(@NotNull String label) throws SQLException { return resultSet.getBigDecimal(indexOf(label)); }
+
+    public InputStream getBinaryStream(int column) throws SQLException         { return resultSet.getBinaryStream(column); }
+
+    /**
+     * Returns the value of the given column as a binary stream. Character columns are encoded with the given character set a buffer at a time as the stream is read.
+     *
+     * @param column The column index.
+     * @param cs     The character set used to encode character columns.
+     *
+     * @return The binary stream or <code>null</code> if the value is SQL NULL.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public InputStream getBinaryStream(int column, @NotNull Charset cs) throws SQLException {
+        if(isBinary(column)) return resultSet.getBinaryStream(column);
+        Reader reader = resultSet.getCharacterStream(column);
+        return ((reader == null) ? null : new ReaderInputStream(reader, true, cs));
+    }
+
+    public boolean getBoolean(int column) throws SQLException                  { return resultSet.getBoolean(column); }
+
+    public boolean getBoolean(@NotNull String label) throws SQLException       { return resultSet.getBoolean(indexOf(label)); }
+
+    public byte[] getBytes(int column) throws SQLException                     { return resultSet.getBytes(column); }
+
+    public Reader getCharacterStream(int column) throws SQLException           { return resultSet.getCharacterStream(column); }
+
+    /**
+     * Returns the value of the given column as a character stream. Binary columns are decoded with the given character set a buffer at a time as the stream is read.
+     *
+     * @param column The column index.
+     * @param cs     The character set used to decode binary columns.
+     *
+     * @return The character stream or <code>null</code> if the value is SQL NULL.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public Reader getCharacterStream(int column, @NotNull Charset cs) throws SQLException {
+        if(!isBinary(column)) return resultSet.getCharacterStream(column);
+        InputStream in = resultSet.getBinaryStream(column);
+        return ((in == null) ? null : new InputStreamReader(in, cs));
+    }
+
+    public int getColumnCount()                                                { return columnCount; }
+
+    public @NotNull String getColumnLabel(int column)                          { return columnLabels[column - 1]; }
+
+    public int getColumnType(int column)                                       { return columnTypes[column - 1]; }
+
+    public Date getDate(int column) throws SQLException                        { return resultSet.getDate(column); }
+
+    public double getDouble(int column) throws SQLException                    { return resultSet.getDouble(column); }
+
+    public double getDouble(@NotNull String label) throws SQLException         { return resultSet.getDouble(indexOf(label)); }
+
+    public float getFloat(int column) throws SQLException                      { return resultSet.getFloat(column); }
+
+    public int getInt(int column) throws SQLException                          { return resultSet.getInt(column); }
+
+    public int getInt(@NotNull String label) throws SQLException               { return resultSet.getInt(indexOf(label)); }
+
+    public long getLong(int column) throws SQLException                        { return resultSet.getLong(column); }
+
+    public long getLong(@NotNull String label) throws SQLException             { return resultSet.getLong(indexOf(label)); }
+
+    public @NotNull ResultSetMetaData getMetaData()                            { return metaData; }
+
+    public Object getObject(int column) throws SQLException                    { return resultSet.getObject(column); }
+
+    public Object getObject(@NotNull String label) throws SQLException         { return resultSet.getObject(indexOf(label)); }
+
+    public @NotNull ResultSet getResultSet()                                   { return resultSet; }
+
+    public long getRowNumber()                                                 { return rowNumber; }
+
+    public short getShort(int column) throws SQLException                      { return resultSet.getShort(column); }
+
+    public String getString(int column) throws SQLException                    { return resultSet.getString(column); }
+
+    public String getString(@NotNull String label) throws SQLException         { return resultSet.getString(indexOf(label)); }
+
+    public Time getTime(int column) throws SQLException                        { return resultSet.getTime(column); }
+
+    public Timestamp getTimestamp(int column) throws SQLException              { return resultSet.getTimestamp(column); }
+
+    public Timestamp getTimestamp(@NotNull String label) throws SQLException   { return resultSet.getTimestamp(indexOf(label)); }
+
+    /**
+     * Returns the 1-based index of the column with the given label. The label lookup table is built the first time it is needed.
+     *
+     * @param label The column label. The match is case-insensitive.
+     *
+     * @return The column index.
+     *
+     * @throws SQLException If there is no column with that label.
+     */
+    public int indexOf(@NotNull String label) throws SQLException {
+        if(columnIndexes == null) {
+            Map<String, Integer> map = new HashMap<>();
+            for(int i = columnCount - 1; i >= 0; i--) map.put(columnLabels[i].toUpperCase(Locale.ROOT), (i + 1));
+            columnIndexes = map;
+        }
+        Integer idx = columnIndexes.get(label.toUpperCase(Locale.ROOT));
+        return ((idx == null) ? resultSet.findColumn(label) : idx);
+    }
+
+    public boolean isBinary(int column) {
+        return switch(columnTypes[column - 1]) { case BINARY, VARBINARY, LONGVARBINARY, BLOB -> true; default -> false; };
+    }
+
+    /**
+     * Tests whether the given column of the current row is SQL NULL. LOB and long columns are tested through their locators or streams so that their values are not read into
+     * memory. On drivers that only allow each column to be read once the column should not be read again afterwards.
+     *
+     * @param column The column index.
+     *
+     * @return <code>true</code> if the value is SQL NULL.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public boolean isNull(int column) throws SQLException {
+        switch(columnTypes[column - 1]) {/*@f0*/
+            case BLOB                             -> resultSet.getBlob(column);
+            case CLOB                             -> resultSet.getClob(column);
+            case NCLOB                            -> resultSet.getNClob(column);
+            case BINARY, VARBINARY, LONGVARBINARY -> resultSet.getBinaryStream(column);
+            case LONGVARCHAR, LONGNVARCHAR        -> resultSet.getCharacterStream(column);
+            default                               -> resultSet.getObject(column);
+        }/*@f1*/
+        return resultSet.wasNull();
+    }
+
+    /**
+     * Moves to the next row of the result set.
+     *
+     * @return <code>false</code> if there are no more rows.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public boolean next() throws SQLException {
+        if(!resultSet.next()) return false;
+        ++rowNumber;
+        return true;
+    }
+
+    /**
+     * Copies the current row into a new array.
+     *
+     * @return The column values of the current row.
+     *
+     * @throws SQLException If a database error occurs.
+     */
+    public Object @NotNull [] toArray() throws SQLException {
+        Object[] row = new Object[columnCount];
+        for(int c = 0; c < columnCount; ++c) row[c] = resultSet.getObject(c + 1);
+        return row;
+    }
+
+    /**
+     * Copies the value of the given column to an output stream without holding the whole value in memory. Character columns are encoded with the given character set.
+     *
+     * @param column The column index.
+     * @param out    The output stream.
+     * @param cs     The character set used to encode character columns.
+     *
+     * @return The number of bytes copied or -1 if the value is SQL NULL.
+     *
+     * @throws SQLException If a database error occurs.
+     * @throws IOException  If an I/O error occurs.
+     */
+    public long transferTo(int column, @NotNull OutputStream out, @NotNull Charset cs) throws SQLException, IOException {
+        try(InputStream in = getBinaryStream(column, cs)) { return ((in == null) ? -1 : in.transferTo(out)); }
+    }
+
+    /**
+     * Copies the value of the given column to a writer without holding the whole value in memory. Binary columns are decoded with the given character set.
+     *
+     * @param column The column index.
+     * @param out    The writer.
+     * @param cs     The character set used to decode binary columns.
+     *
+     * @return The number of characters copied or -1 if the value is SQL NULL.
+     *
+     * @throws SQLException If a database error occurs.
+     * @throws IOException  If an I/O error occurs.
+     */
+    public long transferTo(int column, @NotNull Writer out, @NotNull Charset cs) throws SQLException, IOException {
+        try(Reader in = getCharacterStream(column, cs)) { return ((in == null) ? -1 : in.transferTo(out)); }
+    }
+
+    public boolean wasNull() throws SQLException                               { return resultSet.wasNull(); }
+}
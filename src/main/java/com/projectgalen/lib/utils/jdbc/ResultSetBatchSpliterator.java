@@ -0,0 +1,200 @@
+package com.projectgalen.lib.utils.jdbc;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: ResultSetBatchSpliterator.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+
+import com.projectgalen.lib.utils.delegates.ThrowingFunction;
+import com.projectgalen.lib.utils.errors.SQLRuntimeException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Spliterator} over the rows of a {@link ResultSet} that is designed for parallel streams. A single producer reads the result set and extracts each row, putting the rows
+ * into batches of <code>batchSize</code>, and {@link #trySplit()} hands out whole batches. The result set is only ever touched by the producer so the cursor stays
+ * single-threaded while the downstream stages of the stream run on as many threads as the stream uses.
+ * <p>
+ * No more than <code>maxBatches</code> batches are held waiting for the stream. When that many are waiting the producer blocks until the stream catches up. If the spliterator is
+ * not ordered then the batches may be processed in any order. Call {@link #close()}, or close the stream, to stop the producer early.
+ *
+ * @param <T> The type of the extracted rows.
+ */
+@SuppressWarnings("unused")
+public final class ResultSetBatchSpliterator<T> implements Spliterator<T>, AutoCloseable {
+
+    private static final Object[] END = new Object[0];
+
+    private final    ResultSet                                    resultSet;
+    private final    ThrowingFunction<ResultRow, T, SQLException> extractor;
+    private final    int                                          batchSize;
+    private final    int                                          characteristics;
+    private final    BlockingQueue<Object>                        queue;
+    private final    Executor                                     executor;
+    private volatile boolean                                      closed   = false;
+    private          boolean                                      started  = false;
+    private          boolean                                      finished = false;
+    private          Spliterator<Object>                          current  = null;
+
+    /**
+     * Creates a new spliterator.
+     *
+     * @param resultSet  The result set.
+     * @param batchSize  The number of rows per batch. Also used as the fetch size hint.
+     * @param maxBatches The maximum number of batches waiting to be processed.
+     * @param ordered    If <code>true</code> the rows keep the order of the result set.
+     * @param executor   The executor that runs the producer or <code>null</code> to start a new daemon thread for it.
+     * @param extractor  Extracts the value of the current row. It is called on the producer and must not keep the row it is given.
+     */
+    public ResultSetBatchSpliterator(@NotNull ResultSet resultSet,
+                                     int batchSize,
+                                     int maxBatches,
+                                     boolean ordered,
+                                     @Nullable Executor executor,
+                                     @NotNull ThrowingFunction<ResultRow, T, SQLException> extractor) {
+        this.resultSet       = resultSet;
+        this.extractor       = extractor;
+        this.batchSize       = Math.max(1, batchSize);
+        this.queue           = new ArrayBlockingQueue<>(Math.max(1, maxBatches));
+        this.executor        = executor;
+        this.characteristics = (IMMUTABLE | (ordered ? ORDERED : 0));
+    }
+
+    public @Override int characteristics() { return characteristics; }
+
+    /**
+     * Stops the producer. Any batches that have not been handed out yet are discarded.
+     */
+    public @Override void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    public @Override long estimateSize()   { return Long.MAX_VALUE; }
+
+    public @Override boolean tryAdvance(@NotNull Consumer<? super T> action) {
+        while((current == null) || !current.tryAdvance(o -> action.accept(cast(o)))) {
+            current = nextBatch();
+            if(current == null) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hands out the next batch of rows. This blocks until the producer has filled a batch.
+     *
+     * @return The next batch or <code>null</code> if there are no more rows.
+     */
+    public @Override @Nullable Spliterator<T> trySplit() {
+        Spliterator<Object> batch = current;
+        current = null;
+        if((batch == null) || (batch.estimateSize() == 0)) batch = nextBatch();
+        return ((batch == null) ? null : cast(batch));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object o)                                       { return (T)o; }
+
+    @SuppressWarnings("unchecked")
+    private Spliterator<T> cast(@NotNull Spliterator<Object> batch) { return (Spliterator<T>)(Spliterator<?>)batch; }
+
+    private @Nullable Spliterator<Object> nextBatch() {
+        if(finished) return null;
+        if(!started) start();
+
+        Object item;
+        try {
+            item = queue.take();
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new SQLRuntimeException(e);
+        }
+
+        if(item == END) {
+            finished = true;
+            return null;
+        }
+        if(item instanceof Throwable t) {
+            finished = true;
+            throw SQLRuntimeException.cast(t);
+        }
+        return Spliterators.spliterator((Object[])item, characteristics | SIZED | SUBSIZED);
+    }
+
+    private void produce() {
+        try {
+            if(resultSet.getFetchSize() < batchSize) resultSet.setFetchSize(batchSize);
+            ResultRow row   = new ResultRow(resultSet);
+            Object[]  batch = new Object[batchSize];
+            int       count = 0;
+
+            while(!closed && row.next()) {
+                batch[count++] = extractor.apply(row);
+                if(count == batchSize) {
+                    if(!put(batch)) return;
+                    batch = new Object[batchSize];
+                    count = 0;
+                }
+            }
+
+            if((count > 0) && !put(Arrays.copyOf(batch, count))) return;
+            put(END);
+        }
+        catch(Throwable t) {
+            put(t);
+        }
+    }
+
+    private boolean put(@NotNull Object item) {
+        try {
+            while(!closed) if(queue.offer(item, 100, TimeUnit.MILLISECONDS)) return true;
+        }
+        catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private void start() {
+        started = true;
+        if(executor != null) {
+            executor.execute(this::produce);
+        }
+        else {
+            Thread thread = new Thread(this::produce, "ResultSetProducer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+}
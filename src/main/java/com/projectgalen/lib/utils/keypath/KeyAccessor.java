@@ -0,0 +1,151 @@
+package com.projectgalen.lib.utils.keypath;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: KeyAccessor.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+
+import com.projectgalen.lib.utils.PGProperties;
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+import com.projectgalen.lib.utils.reflection.Reflection;
+import com.projectgalen.lib.utils.reflection.Reflection2;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The resolved getter and setter for one key of one class. Resolving a key means trying every field, getter and setter name format in <code>pg_properties.xml</code>, so it
+ * is done once for each class and key and the result is kept, as {@link MethodHandle}s, for as long as the class is loaded. Keys that do not exist are cached too.
+ */
+final class KeyAccessor {
+
+    private static final PGResourceBundle                                   msgs      = PGResources.msgs();
+    private static final PGProperties                                       props     = PGResources.props();
+    private static final MethodType                                         GET_TYPE  = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType                                         SET_TYPE  = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final ClassValue<Map<String, KeyAccessor>>               ACCESSORS = new ClassValue<>() {
+        protected @Override Map<String, KeyAccessor> computeValue(@NotNull Class<?> type) { return new ConcurrentHashMap<>(); }
+    };
+
+    final         Class<?>     owner;
+    final         String       key;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final Class<?>     setterType;
+    private final boolean      isField;
+
+    private KeyAccessor(@NotNull Class<?> owner, @NotNull String key) {
+        Field        field  = findField(owner, key);
+        Method       getter = ((field == null) ? findMethod(owner, "getter", key, 0) : null);
+        Method       setter = ((field == null) ? findMethod(owner, "setter", key, 1) : null);
+        MethodHandle g      = null;
+        MethodHandle s      = null;
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            if(field != null) {
+                g = lookup.unreflectGetter(field);
+                if(!Modifier.isFinal(field.getModifiers())) s = lookup.unreflectSetter(field);
+            }
+            else {
+                if(getter != null) g = lookup.unreflect(getter);
+                if(setter != null) s = lookup.unreflect(setter);
+            }
+        }
+        catch(IllegalAccessException e) {
+            throw new KeyPathException(e);
+        }
+
+        this.owner      = owner;
+        this.key        = key;
+        this.getter     = ((g == null) ? null : adapt(g, ((field != null) ? field : getter), GET_TYPE));
+        this.setter     = ((s == null) ? null : adapt(s, ((field != null) ? field : setter), SET_TYPE));
+        this.setterType = ((field != null) ? field.getType() : ((setter != null) ? setter.getParameterTypes()[0] : null));
+        this.isField    = (field != null);
+    }
+
+    public boolean canGet() { return (getter != null); }
+
+    public boolean canSet() { return (setter != null); }
+
+    public Object get(@NotNull Object source) {
+        if(getter == null) throw new KeyPathException(msgs.format("msg.err.reflect.keypath.elem_not_found", key, source.getClass().getName()));
+        try {
+            return getter.invokeExact(source);
+        }
+        catch(Throwable t) {
+            String msgKey = (isField ? "msg.err.reflect.keypath.elem_error_getting_field" : "msg.err.reflect.keypath.elem_error_invoking_getter");
+            throw new KeyPathException(msgs.format(msgKey, key, source.getClass().getName()), t);
+        }
+    }
+
+    public void set(@NotNull Object target, @Nullable Object value) {
+        if(setter == null) throw new KeyPathException(msgs.format("msg.err.reflect.keypath.elem_not_found", key, target.getClass().getName()));
+        try {
+            setter.invokeExact(target, Reflection.castIfNumeric(value, Reflection.objectClassForPrimitive(setterType)));
+        }
+        catch(Throwable t) {
+            String msgKey = (isField ? "msg.err.reflect.keypath.elem_error_setting_field" : "msg.err.reflect.keypath.elem_error_invoking_setter");
+            if(value == null) throw new KeyPathException(msgs.format(msgKey + "_null", key, target.getClass().getName()), t);
+            throw new KeyPathException(msgs.format(msgKey, key, target.getClass().getName(), value.getClass().getName()), t);
+        }
+    }
+
+    /*
+     * Handles for static members don't take a receiver, so one is added and ignored to give every getter and setter the same shape.
+     */
+    private static @NotNull MethodHandle adapt(@NotNull MethodHandle handle, @NotNull Member member, @NotNull MethodType type) {
+        return (Modifier.isStatic(member.getModifiers()) ? MethodHandles.dropArguments(handle, 0, Object.class) : handle).asType(type);
+    }
+
+    static @NotNull KeyAccessor forKey(@NotNull Class<?> owner, @NotNull String key) {
+        Map<String, KeyAccessor> map      = ACCESSORS.get(owner);
+        KeyAccessor              accessor = map.get(key);
+        return ((accessor == null) ? map.computeIfAbsent(key, k -> new KeyAccessor(owner, k)) : accessor);
+    }
+
+    private static @Nullable Field findField(@NotNull Class<?> owner, @NotNull String key) {
+        for(int i = 1, j = props.getInt("keypath.field.format.count"); i <= j; i++) {
+            Field field = Reflection.getAccessibleFieldOrNull(owner, String.format(props.getProperty(String.format("keypath.field.format%d", i)), key));
+            if(field != null) return field;
+        }
+        return null;
+    }
+
+    private static @Nullable Method findMethod(@NotNull Class<?> owner, @NotNull String methodType, @NotNull String key, int paramCount) {
+        for(int i = 1, j = props.getInt(String.format("keypath.%s.format.count", methodType)); i <= j; i++) {
+            String name   = String.format(props.getProperty(String.format("keypath.%s.format%d", methodType, i)), key.charAt(0), key.substring(1), key);
+            Method method = Reflection2.getMethods(owner).filter(m -> (m.getName().equals(name) && (m.getParameterCount() == paramCount) && ((paramCount == 1) || (m.getReturnType() != void.class)))).findFirst().orElse(null);
+            if(method != null) return Reflection.accessibleCopy(method);
+        }
+        return null;
+    }
+}
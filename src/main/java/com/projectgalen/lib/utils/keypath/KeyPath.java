@@ -0,0 +1,159 @@
+package com.projectgalen.lib.utils.keypath;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: KeyPath.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+
+import com.projectgalen.lib.utils.ObjCache;
+import com.projectgalen.lib.utils.PGProperties;
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+import com.projectgalen.lib.utils.regex.Regex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * A compiled key path. The key path is split into its keys once, when it is compiled, and each key remembers the accessor it resolved for the last class it saw, so evaluating
+ * the same key path over and over against objects of the same classes does no parsing and no reflective lookups. Accessors are resolved once per class and key and shared by
+ * every key path.
+ * <p>
+ * Compiled key paths are immutable, apart from those remembered accessors, and are safe to share between threads. {@link #compile(String)} caches them by key path.
+ */
+@SuppressWarnings("unused")
+public final class KeyPath {
+
+    private static final PGResourceBundle msgs  = PGResources.msgs();
+    private static final PGProperties     props = PGResources.props();
+    private static final ObjCache         cache = new ObjCache(props.getInt("keypath.cache.max_size", 1024));
+
+    private final String    keyPath;
+    private final Segment[] segments;
+
+    private KeyPath(@NotNull String keyPath) {
+        if(keyPath.isEmpty()) throw new KeyPathException(msgs.getString("msg.err.reflect.keypath.key_path_empty"));
+
+        String[] keys = Regex.getPattern(props.getProperty("keypath.separator.regexp")).split(keyPath, -1);
+
+        this.keyPath  = keyPath;
+        this.segments = new Segment[keys.length];
+
+        for(int i = 0; i < keys.length; i++) {
+            if(keys[i].isEmpty()) throw new KeyPathException(msgs.getString("msg.err.reflect.keypath.elem_empty"));
+            segments[i] = new Segment(keys[i]);
+        }
+    }
+
+    public @Override boolean equals(Object o)                 { return ((this == o) || ((o instanceof KeyPath kp) && keyPath.equals(kp.keyPath))); }
+
+    public String @NotNull [] getKeys()                       { return Arrays.stream(segments).map(s -> s.key).toArray(String[]::new); }
+
+    public @NotNull String getKeyPath()                       { return keyPath; }
+
+    public @Nullable Object getValue(@Nullable Object source) { return getValue(Object.class, source); }
+
+    /**
+     * Returns the value at the end of this key path, starting from the given object. If any object along the path is <code>null</code> then <code>null</code> is returned.
+     *
+     * @param type   The expected type of the value.
+     * @param source The object to start from.
+     * @param <T>    The expected type of the value.
+     *
+     * @return The value.
+     *
+     * @throws KeyPathException If a key cannot be found or reading a value fails.
+     */
+    public <T> @Nullable T getValue(@NotNull Class<T> type, @Nullable Object source) {
+        for(Segment segment : segments) {
+            if(source == null) return null;
+            source = segment.accessor(source.getClass()).get(source);
+        }
+        return type.cast(source);
+    }
+
+    public @Override int hashCode()                           { return keyPath.hashCode(); }
+
+    public boolean hasValue(@Nullable Object source) {
+        for(int i = 0, j = (segments.length - 1); (source != null) && (i <= j); i++) {
+            KeyAccessor accessor = segments[i].accessor(source.getClass());
+            if(!accessor.canGet()) return false;
+            if(i == j) return true;
+            source = accessor.get(source);
+        }
+        return false;
+    }
+
+    public int length()                                       { return segments.length; }
+
+    /**
+     * Sets the value at the end of this key path, starting from the given object. If any object along the path, including the target itself, is <code>null</code> then nothing
+     * happens.
+     *
+     * @param target The object to start from.
+     * @param value  The new value.
+     *
+     * @throws KeyPathException If a key cannot be found or reading or writing a value fails.
+     */
+    public void setValue(@Nullable Object target, @Nullable Object value) {
+        int last = (segments.length - 1);
+        for(int i = 0; (target != null) && (i < last); i++) target = segments[i].accessor(target.getClass()).get(target);
+        if(target != null) segments[last].accessor(target.getClass()).set(target, value);
+    }
+
+    public @Override String toString()                        { return keyPath; }
+
+    /**
+     * Compiles a key path. Compiled key paths are cached so compiling the same key path again is cheap.
+     *
+     * @param keyPath The key path. Keys are separated by periods.
+     *
+     * @return The compiled key path.
+     *
+     * @throws KeyPathException If the key path or any key in it is empty.
+     */
+    public static @NotNull KeyPath compile(@NotNull String keyPath) {
+        String  kp       = keyPath.trim();
+        KeyPath compiled = cache.get(kp, KeyPath.class);
+        if(compiled == null) cache.store(kp, compiled = new KeyPath(kp));
+        return compiled;
+    }
+
+    /*
+     * The last accessor is only weakly referenced. The accessor is kept alive by its owner class, so the reference stays valid as long as the class is loaded, but a cached key
+     * path never keeps the class from being unloaded.
+     */
+    private static final class Segment {
+        private final    String                     key;
+        private volatile WeakReference<KeyAccessor> last = null;
+
+        public Segment(@NotNull String key) { this.key = key; }
+
+        public @NotNull KeyAccessor accessor(@NotNull Class<?> owner) {
+            WeakReference<KeyAccessor> ref      = last;
+            KeyAccessor                accessor = ((ref == null) ? null : ref.get());
+            if((accessor == null) || (accessor.owner != owner)) last = new WeakReference<>(accessor = KeyAccessor.forKey(owner, key));
+            return accessor;
+        }
+    }
+}
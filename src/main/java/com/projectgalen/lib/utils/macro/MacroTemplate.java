@@ -0,0 +1,234 @@
+package com.projectgalen.lib.utils.macro;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: MacroTemplate.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+import com.projectgalen.lib.utils.ObjCache;
+import com.projectgalen.lib.utils.PGProperties;
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+import com.projectgalen.lib.utils.errors.InvalidPropertyMacro;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A string that has been broken into literal text and macro references (<code>${name}</code>) once, so that it can be rendered many times with a single pass over its
+ * segments.
+ * <p>
+ * The syntax is the same as that of {@link Macro#replaceMacros(String, Function)}. A double backslash stands for a single backslash and a macro reference preceded by a backslash
+ * is copied through without the backslash. A reference whose name the lookup function does not know is left in place. The value of a reference is itself rendered as a
+ * template, and a reference that leads back to itself causes an {@link InvalidPropertyMacro} exception.
+ * <p>
+ * Instances are immutable and thread-safe. {@link #compile(String)} caches the templates it returns.
+ */
+@SuppressWarnings("unused")
+public final class MacroTemplate {
+
+    private static final PGProperties               props    = PGResources.props();
+    private static final PGResourceBundle           msgs     = PGResources.msgs();
+    private static final ObjCache                   cache    = new ObjCache(Integer.parseInt(props.getProperty("macro.cache.max_size", "1024", false)));
+    private static final ThreadLocal<StringBuilder> builder  = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private static final int                        MAX_KEEP = 8192;
+
+    private final String      source;
+    private final String[]    segments;
+    private final boolean[]   references;
+    private final String      literal;
+    private final int         length;
+    private final Set<String> names;
+
+    private MacroTemplate(@NotNull String source, @NotNull List<String> segments, @NotNull List<Boolean> references) {
+        this.source     = source;
+        this.segments   = segments.toArray(new String[0]);
+        this.references = new boolean[this.segments.length];
+
+        Set<String> names  = new LinkedHashSet<>();
+        int         length = 0;
+        for(int i = 0; i < this.segments.length; i++) {
+            this.references[i] = references.get(i);
+            if(this.references[i]) names.add(this.segments[i]);
+            else length += this.segments[i].length();
+        }
+
+        this.names   = Collections.unmodifiableSet(names);
+        this.length  = length;
+        this.literal = (names.isEmpty() ? String.join("", this.segments) : null);
+    }
+
+    /**
+     * Returns the names of the macros referenced directly by this template, in the order they first appear.
+     *
+     * @return The names of the referenced macros.
+     */
+    public @NotNull Set<String> getReferences() {
+        return names;
+    }
+
+    public @NotNull String getSource() {
+        return source;
+    }
+
+    public boolean hasReferences() {
+        return (literal == null);
+    }
+
+    /**
+     * Renders this template.
+     *
+     * @param lookup Returns the unexpanded value of a macro or <code>null</code> if there is no macro with that name.
+     * @return The rendered string.
+     * @throws InvalidPropertyMacro If the macros refer to each other in a circle.
+     */
+    public @NotNull String render(@NotNull Function<String, String> lookup) {
+        if(literal != null) return literal;
+
+        StringBuilder sb = builder.get();
+        if(sb.length() > 0) return renderTo(new StringBuilder(length + 32), lookup).toString(); // A lookup function is rendering another template on this thread.
+
+        try {
+            return renderTo(sb, lookup).toString();
+        }
+        finally {
+            sb.setLength(0);
+            if(sb.capacity() > MAX_KEEP) builder.set(new StringBuilder(256));
+        }
+    }
+
+    /**
+     * Renders this template onto the end of the given builder.
+     *
+     * @param sb     The builder.
+     * @param lookup Returns the unexpanded value of a macro or <code>null</code> if there is no macro with that name.
+     * @return The builder.
+     * @throws InvalidPropertyMacro If the macros refer to each other in a circle.
+     */
+    public @NotNull StringBuilder renderTo(@NotNull StringBuilder sb, @NotNull Function<String, String> lookup) {
+        if(literal != null) return sb.append(literal);
+        render(sb, lookup, null);
+        return sb;
+    }
+
+    public @Override String toString() {
+        return source;
+    }
+
+    private void render(@NotNull StringBuilder sb, @NotNull Function<String, String> lookup, @Nullable Deque<String> path) {
+        for(int i = 0; i < segments.length; i++) {
+            if(!references[i]) {
+                sb.append(segments[i]);
+                continue;
+            }
+
+            String name  = segments[i];
+            String value = lookup.apply(name);
+            if(value == null) {
+                sb.append("${").append(name).append('}');
+                continue;
+            }
+
+            MacroTemplate nested = compile(value);
+            if(nested.literal != null) {
+                sb.append(nested.literal);
+                continue;
+            }
+
+            if(path == null) path = new ArrayDeque<>();
+            if(path.contains(name)) throw new InvalidPropertyMacro(msgs.format("msg.err.macro.key_circular_ref", name));
+            path.push(name);
+            nested.render(sb, lookup, path);
+            path.pop();
+        }
+    }
+
+    /**
+     * Returns the compiled form of the given string.
+     *
+     * @param input The string.
+     * @return The template.
+     */
+    public static @NotNull MacroTemplate compile(@NotNull String input) {
+        MacroTemplate t = cache.get(input, MacroTemplate.class);
+        if(t == null) cache.store(input, (t = parse(input)));
+        return t;
+    }
+
+    private static void flush(@NotNull StringBuilder text, @NotNull List<String> segments, @NotNull List<Boolean> references) {
+        if(text.length() > 0) {
+            segments.add(text.toString());
+            references.add(Boolean.FALSE);
+            text.setLength(0);
+        }
+    }
+
+    private static int macroEnd(@NotNull String input, int i) {
+        if(((i + 2) >= input.length()) || (input.charAt(i) != '$') || (input.charAt(i + 1) != '{') || (input.charAt(i + 2) == '}')) return -1;
+        return input.indexOf('}', i + 2);
+    }
+
+    private static @NotNull MacroTemplate parse(@NotNull String input) {
+        List<String>  segments   = new ArrayList<>();
+        List<Boolean> references = new ArrayList<>();
+        StringBuilder text       = new StringBuilder(input.length());
+        int           len        = input.length();
+        int           i          = 0;
+
+        while(i < len) {
+            char ch = input.charAt(i);
+
+            if(ch == '\\') {
+                if(((i + 1) < len) && (input.charAt(i + 1) == '\\')) {
+                    text.append('\\');
+                    i += 2;
+                }
+                else {
+                    int end = macroEnd(input, i + 1);
+                    if(end < 0) text.append(ch);
+                    else text.append(input, i + 1, end + 1);
+                    i = ((end < 0) ? (i + 1) : (end + 1));
+                }
+            }
+            else if(ch == '$') {
+                int end = macroEnd(input, i);
+                if(end < 0) {
+                    text.append(ch);
+                    i++;
+                }
+                else {
+                    flush(text, segments, references);
+                    segments.add(input.substring(i + 2, end));
+                    references.add(Boolean.TRUE);
+                    i = (end + 1);
+                }
+            }
+            else {
+                text.append(ch);
+                i++;
+            }
+        }
+
+        flush(text, segments, references);
+        return new MacroTemplate(input, segments, references);
+    }
+}
@@ -0,0 +1,292 @@
+package com.projectgalen.lib.utils.reflection;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: BeanCopier.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Copies properties from objects of one class to objects of another. The first time a pair of classes is seen a copy plan is built: every getter of the source class is
+ * matched by name to a setter of the target class, and every pair whose types already agree is folded into one {@link MethodHandle} that copies all of them at once without
+ * boxing. After that copying an object is one call to that handle, plus one call per property that needs a conversion, with no lookups.
+ * <p>
+ * A property is copied if the setter's parameter type can take the getter's type. Numeric values are widened with {@link Reflection#castIfNumeric(Object, Class)}, so an
+ * <code>int</code> getter can feed a <code>Long</code> setter. A <code>null</code> is never passed to a setter with a primitive parameter. Properties whose types do not match
+ * are left alone.
+ * <p>
+ * Copy plans are cached with {@link ClassValue}s, first by source class and then by target class. The plan is stored with the target class and refers to the source class's
+ * getters, so a cached plan never keeps the target class from being unloaded but does keep the source class loaded for as long as the target class is. Instances are
+ * immutable and thread-safe.
+ *
+ * @param <S> The source type.
+ * @param <T> The target type.
+ */
+@SuppressWarnings("unused")
+public final class BeanCopier<S, T> {
+
+    private static final PGResourceBundle                          msgs    = PGResources.msgs();
+    private static final MethodType                                COPY    = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType                                GET     = MethodType.methodType(Object.class, Object.class);
+    private static final ClassValue<ClassValue<BeanCopier<?, ?>>> COPIERS = new ClassValue<>() {
+        protected @Override ClassValue<BeanCopier<?, ?>> computeValue(@NotNull Class<?> sourceClass) {
+            return new ClassValue<>() {
+                protected @Override BeanCopier<?, ?> computeValue(@NotNull Class<?> targetClass) { return new BeanCopier<>(sourceClass, targetClass); }
+            };
+        }
+    };
+
+    private final Class<S>     sourceClass;
+    private final Class<T>     targetClass;
+    private final Property[]   properties;
+    private final MethodHandle directCopier;
+    private final MethodHandle constructor;
+    private final List<String> propertyNames;
+
+    private BeanCopier(@NotNull Class<S> sourceClass, @NotNull Class<T> targetClass) {
+        Map<String, Method>       getters = getters(sourceClass);
+        Map<String, List<Method>> setters = setters(targetClass);
+        List<Property>            props   = new ArrayList<>();
+
+        for(Map.Entry<String, Method> e : getters.entrySet()) {
+            Property p = property(e.getKey(), e.getValue(), setters.get(e.getKey()));
+            if(p != null) props.add(p);
+        }
+
+        this.sourceClass   = sourceClass;
+        this.targetClass   = targetClass;
+        this.directCopier  = props.stream().filter(p -> (p.copier != null)).map(p -> p.copier).reduce(MethodHandles.empty(COPY), (a, b) -> MethodHandles.foldArguments(b, a));
+        this.properties    = props.stream().filter(p -> (p.copier == null)).toArray(Property[]::new);
+        this.propertyNames = props.stream().map(p -> p.name).toList();
+        this.constructor   = constructor(targetClass);
+    }
+
+    /**
+     * Copies every matching property of <code>source</code> to <code>target</code>.
+     *
+     * @param source The source object.
+     * @param target The target object.
+     *
+     * @return The target object.
+     */
+    public @NotNull T copy(@NotNull S source, @NotNull T target) {
+        try {
+            directCopier.invokeExact((Object)source, (Object)target);
+        }
+        catch(Throwable t) {
+            throw new RuntimeException(msgs.format("msg.err.reflect.copier.copy_failed_any", sourceClass.getName(), targetClass.getName(), t), t);
+        }
+        for(Property p : properties) p.copy(source, target);
+        return target;
+    }
+
+    /**
+     * Creates a new target object, using the target class's no-argument constructor, and copies every matching property of <code>source</code> to it.
+     *
+     * @param source The source object.
+     *
+     * @return The new target object.
+     */
+    public @NotNull T copy(@NotNull S source) {
+        return copy(source, newTarget());
+    }
+
+    public @NotNull List<T> copyAll(@NotNull Collection<? extends S> sources) {
+        List<T> list = new ArrayList<>(sources.size());
+        for(S source : sources) list.add(copy(source, newTarget()));
+        return list;
+    }
+
+    /**
+     * Copies a whole collection of source objects to new target objects.
+     *
+     * @param sources The source objects.
+     * @param factory Creates the target objects.
+     *
+     * @return The target objects, in the same order as the source objects.
+     */
+    public @NotNull List<T> copyAll(@NotNull Collection<? extends S> sources, @NotNull Supplier<? extends T> factory) {
+        List<T> list = new ArrayList<>(sources.size());
+        for(S source : sources) list.add(copy(source, factory.get()));
+        return list;
+    }
+
+    public @NotNull List<String> getPropertyNames() { return propertyNames; }
+
+    public @NotNull Class<S> getSourceClass()       { return sourceClass; }
+
+    public @NotNull Class<T> getTargetClass()       { return targetClass; }
+
+    private @NotNull T newTarget() {
+        if(constructor == null) throw new RuntimeException(msgs.format("msg.err.reflect.copier.no_constructor", targetClass.getName()));
+        try {
+            return targetClass.cast(constructor.invoke());
+        }
+        catch(RuntimeException | Error e) {
+            throw e;
+        }
+        catch(Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    /**
+     * Copies the properties of <code>source</code> to <code>target</code> using the cached copy plan for their classes.
+     *
+     * @param source The source object.
+     * @param target The target object.
+     * @param <T>    The target type.
+     *
+     * @return The target object.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> @NotNull T copyProperties(@NotNull Object source, @NotNull T target) {
+        return ((BeanCopier<Object, T>)COPIERS.get(source.getClass()).get(target.getClass())).copy(source, target);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <S, T> @NotNull BeanCopier<S, T> forClasses(@NotNull Class<S> sourceClass, @NotNull Class<T> targetClass) {
+        return (BeanCopier<S, T>)COPIERS.get(sourceClass).get(targetClass);
+    }
+
+    private static @Nullable MethodHandle constructor(@NotNull Class<?> cls) {
+        if(cls.isInterface() || Modifier.isAbstract(cls.getModifiers())) return null;
+        try {
+            Constructor<?> c = Reflection.makeAccessable(cls.getDeclaredConstructor());
+            return MethodHandles.lookup().unreflectConstructor(c);
+        }
+        catch(NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static @NotNull Map<String, Method> getters(@NotNull Class<?> cls) {
+        Map<String, Method> map = new LinkedHashMap<>();
+        for(Method m : ClassMetadata.forClass(cls).getGetters()) {
+            String name = m.getName();
+            if(Modifier.isStatic(m.getModifiers()) || name.equals("getClass")) continue;
+            if((name.length() > 3) && name.startsWith("get")) map.putIfAbsent(name.substring(3), m);
+            else if((name.length() > 2) && name.startsWith("is") && ((m.getReturnType() == boolean.class) || (m.getReturnType() == Boolean.class))) map.putIfAbsent(name.substring(2), m);
+        }
+        return map;
+    }
+
+    private static @NotNull Map<String, List<Method>> setters(@NotNull Class<?> cls) {
+        Map<String, List<Method>> map = new HashMap<>();
+        for(Method m : ClassMetadata.forClass(cls).getSetters()) {
+            if(!Modifier.isStatic(m.getModifiers()) && (m.getName().length() > 3)) map.computeIfAbsent(m.getName().substring(3), k -> new ArrayList<>()).add(m);
+        }
+        return map;
+    }
+
+    private static @Nullable Property property(@NotNull String name, @NotNull Method getter, @Nullable List<Method> setters) {
+        if(setters == null) return null;
+
+        Class<?> g      = getter.getReturnType();
+        Method   direct = null;
+        Method   conv   = null;
+
+        for(Method setter : setters) {
+            Class<?> p = setter.getParameterTypes()[0];
+            if(isDirect(p, g)) {
+                if((direct == null) || (p == g)) direct = setter;
+            }
+            else if((conv == null) && Reflection.isTypeMatch(false, p, g)) {
+                conv = setter;
+            }
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle         get    = lookup.unreflect(Reflection.accessibleCopy(getter));
+
+            if(direct != null) {
+                MethodHandle set = lookup.unreflect(Reflection.accessibleCopy(direct));
+                MethodHandle mh  = MethodHandles.filterArguments(set, 1, get.asType(MethodType.methodType(direct.getParameterTypes()[0], getter.getDeclaringClass())));
+                return new Property(name, MethodHandles.permuteArguments(mh.asType(COPY), COPY, 1, 0), null, null, null);
+            }
+            if(conv != null) {
+                MethodHandle set = lookup.unreflect(Reflection.accessibleCopy(conv)).asType(COPY);
+                return new Property(name, null, get.asType(GET), set, conv.getParameterTypes()[0]);
+            }
+        }
+        catch(IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /*
+     * The getter's value can be handed straight to the setter, with at most a primitive widening or boxing conversion, and can never be a null headed for a primitive.
+     */
+    private static boolean isDirect(@NotNull Class<?> p, @NotNull Class<?> g) {
+        if(p == g) return true;
+        if(!g.isPrimitive()) return (!p.isPrimitive() && p.isAssignableFrom(g));
+        if(!p.isPrimitive()) return p.isAssignableFrom(Reflection.objectClassForPrimitive(g));
+        return ((g != boolean.class) && (p != boolean.class) && Reflection.isNumericallyAssignable(p, g));
+    }
+
+    private static final class Property {
+        private final String       name;
+        private final MethodHandle copier;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final Class<?>     setterType;
+        private final boolean      primitive;
+
+        public Property(@NotNull String name, @Nullable MethodHandle copier, @Nullable MethodHandle getter, @Nullable MethodHandle setter, @Nullable Class<?> setterType) {
+            this.name       = name;
+            this.copier     = copier;
+            this.getter     = getter;
+            this.setter     = setter;
+            this.setterType = ((setterType == null) ? null : Reflection.objectClassForPrimitive(setterType));
+            this.primitive  = ((setterType != null) && setterType.isPrimitive());
+        }
+
+        public void copy(@NotNull Object source, @NotNull Object target) {
+            try {
+                if(copier != null) {
+                    copier.invokeExact(source, target);
+                }
+                else {
+                    Object value = (Object)getter.invokeExact(source);
+                    if((value != null) || !primitive) setter.invokeExact(target, Reflection.castIfNumeric(value, setterType));
+                }
+            }
+            catch(Throwable t) {
+                throw new RuntimeException(msgs.format("msg.err.reflect.copier.copy_failed", name, source.getClass().getName(), target.getClass().getName(), t), t);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.projectgalen.lib.utils.reflection;
+
+// ===========================================================================
+//     PROJECT: PGUtils
+//    FILENAME: ClassMetadata.java
+//         IDE: IntelliJ IDEA
+//      AUTHOR: Galen Rhodes
+//        DATE: October 18, 2026
+//
+// Copyright © 2026 Project Galen. All rights reserved.
+//
+// Permission to use, copy, modify, and distribute this software for any
+// purpose with or without fee is hereby granted, provided that the above
+// copyright notice and this permission notice appear in all copies.
+//
+// THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+// WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+// MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+// SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+// WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+// ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+// IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+// ===========================================================================
+
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reflection metadata for one class, computed once and cached. The fields, methods, getters and setters of a class are read the first time they are asked for and the same
+ * immutable lists are returned from then on, so none of the accessors allocate after the first call. The "all" variants include the members of every superclass, with the members
+ * of the class itself first.
+ * <p>
+ * Instances are kept in a {@link ClassValue} so they do not keep a class from being unloaded. Note that the {@link Field} and {@link Method} objects are shared by everyone who
+ * asks for them, so they must not be made accessible. Use {@link Reflection#accessibleCopy(Field)} or {@link Reflection#accessibleCopy(Method)} to get an accessible copy.
+ */
+@SuppressWarnings("unused")
+public final class ClassMetadata {
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<>() {
+        protected @Override ClassMetadata computeValue(@NotNull Class<?> type) { return new ClassMetadata(type); }
+    };
+
+    private final    Class<?>                                       type;
+    private final    ClassMetadata                                  superMetadata;
+    private final    Map<Class<? extends Annotation>, List<Field>>  annotatedFields  = new ConcurrentHashMap<>();
+    private final    Map<Class<? extends Annotation>, List<Method>> annotatedMethods = new ConcurrentHashMap<>();
+    private volatile List<Field>                                    declaredFields   = null;
+    private volatile List<Method>                                   declaredMethods  = null;
+    private volatile List<Field>                                    allFields        = null;
+    private volatile List<Method>                                   allMethods       = null;
+    private volatile List<Method>                                   getters          = null;
+    private volatile List<Method>                                   setters          = null;
+    private volatile Map<String, Field>                             fieldsByName     = null;
+    private volatile Map<String, List<Method>>                      methodsByName    = null;
+
+    private ClassMetadata(@NotNull Class<?> type) {
+        Class<?> superclass = type.getSuperclass();
+        this.type          = type;
+        this.superMetadata = ((superclass == null) ? null : CACHE.get(superclass));
+    }
+
+    /**
+     * Returns every field of this class and all of its superclasses.
+     *
+     * @return An immutable list of fields.
+     */
+    public @NotNull List<Field> getAllFields() {
+        List<Field> list = allFields;
+        if(list == null) allFields = list = ((superMetadata == null) ? getDeclaredFields() : concat(getDeclaredFields(), superMetadata.getAllFields()));
+        return list;
+    }
+
+    /**
+     * Returns every method of this class and all of its superclasses.
+     *
+     * @return An immutable list of methods.
+     */
+    public @NotNull List<Method> getAllMethods() {
+        List<Method> list = allMethods;
+        if(list == null) allMethods = list = ((superMetadata == null) ? getDeclaredMethods() : concat(getDeclaredMethods(), superMetadata.getAllMethods()));
+        return list;
+    }
+
+    public @NotNull List<Field> getDeclaredFields() {
+        List<Field> list = declaredFields;
+        if(list == null) declaredFields = list = List.of(type.getDeclaredFields());
+        return list;
+    }
+
+    public @NotNull List<Method> getDeclaredMethods() {
+        List<Method> list = declaredMethods;
+        if(list == null) declaredMethods = list = List.of(type.getDeclaredMethods());
+        return list;
+    }
+
+    /**
+     * Returns the field with the given name. If this class and a superclass both have a field with that name then the one in this class is returned.
+     *
+     * @param name The name of the field.
+     *
+     * @return The field or <code>null</code> if there is no such field.
+     */
+    public @Nullable Field getField(@NotNull String name) {
+        Map<String, Field> map = fieldsByName;
+        if(map == null) {
+            Map<String, Field> m = new HashMap<>();
+            for(Field f : getAllFields()) m.putIfAbsent(f.getName(), f);
+            fieldsByName = map = Collections.unmodifiableMap(m);
+        }
+        return map.get(name);
+    }
+
+    public @NotNull List<Field> getFieldsWithAnnotation(@NotNull Class<? extends Annotation> annotationClass) {
+        return annotatedFields.computeIfAbsent(annotationClass, a -> getAllFields().stream().filter(f -> f.isAnnotationPresent(a)).toList());
+    }
+
+    /**
+     * Returns the methods of this class and its superclasses that take no parameters and return a value.
+     *
+     * @return An immutable list of methods.
+     */
+    public @NotNull List<Method> getGetters() {
+        List<Method> list = getters;
+        if(list == null) getters = list = getAllMethods().stream().filter(m -> ((m.getReturnType() != void.class) && (m.getParameterCount() == 0))).toList();
+        return list;
+    }
+
+    /**
+     * Returns the methods of this class and its superclasses with the given name. Overridden methods appear once for every class that declares them, the most specific first.
+     *
+     * @param name The name of the methods.
+     *
+     * @return An immutable list of methods.
+     */
+    public @NotNull List<Method> getMethods(@NotNull String name) {
+        Map<String, List<Method>> map = methodsByName;
+        if(map == null) {
+            Map<String, List<Method>> m = new HashMap<>();
+            for(Method method : getAllMethods()) m.computeIfAbsent(method.getName(), k -> new ArrayList<>()).add(method);
+            m.replaceAll((k, v) -> List.copyOf(v));
+            methodsByName = map = Collections.unmodifiableMap(m);
+        }
+        return map.getOrDefault(name, List.of());
+    }
+
+    public @NotNull List<Method> getMethodsWithAnnotation(@NotNull Class<? extends Annotation> annotationClass) {
+        return annotatedMethods.computeIfAbsent(annotationClass, a -> getAllMethods().stream().filter(m -> m.isAnnotationPresent(a)).toList());
+    }
+
+    /**
+     * Returns the methods of this class and its superclasses whose names start with "set", that take exactly one parameter and that do not return a value.
+     *
+     * @return An immutable list of methods.
+     */
+    public @NotNull List<Method> getSetters() {
+        List<Method> list = setters;
+        if(list == null) setters = list = getAllMethods().stream().filter(m -> ((m.getReturnType() == void.class) && (m.getParameterCount() == 1) && m.getName().startsWith("set"))).toList();
+        return list;
+    }
+
+    public @Nullable ClassMetadata getSuperclassMetadata() { return superMetadata; }
+
+    public @NotNull Class<?> getType()                     { return type; }
+
+    public static @NotNull ClassMetadata forClass(@NotNull Class<?> cls) { return CACHE.get(cls); }
+
+    private static <T> @NotNull List<T> concat(@NotNull List<T> a, @NotNull List<T> b) {
+        List<T> list = new ArrayList<>(a.size() + b.size());
+        list.addAll(a);
+        list.addAll(b);
+        return Collections.unmodifiableList(list);
+    }
+}
@@ -21,6 +21,7 @@ package com.projectgalen.lib.utils.reflection;
 // ===========================================================================
 
 import com.projectgalen.lib.utils.*;
+import com.projectgalen.lib.utils.PGResources;
 import com.projectgalen.lib.utils.errors.Errors;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -30,6 +31,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -42,13 +44,37 @@ import static com.projectgalen.lib.utils.PGArrays.areEqual;
 
 @SuppressWarnings({ "unused", "SpellCheckingInspection" })
 public class Reflection {
-    private static final PGResourceBundle msgs  = PGResourceBundle.getXMLPGBundle("com.projectgalen.lib.utils.pg_messages");
-    private static final PGProperties     props = PGProperties.getXMLProperties("pg_properties.xml", PGProperties.class);
+    private static final PGResourceBundle msgs  = PGResources.msgs();
+    private static final PGProperties     props = PGResources.props();
 
     public static final Class<?>[] NO_TYPES = {};
 
     Reflection() { }
 
+    /**
+     * Returns a copy of the given field that has been made accessible. The field passed in is left alone. Use this instead of {@link #makeAccessable(AccessibleObject)} with
+     * fields from {@link ClassMetadata}, which are shared by everyone who asks for them.
+     *
+     * @param field The field.
+     *
+     * @return An accessible copy of the field.
+     */
+    public static @NotNull Field accessibleCopy(@NotNull Field field) {
+        return makeAccessable(copyOf(field));
+    }
+
+    /**
+     * Returns a copy of the given method that has been made accessible. The method passed in is left alone. Use this instead of {@link #makeAccessable(AccessibleObject)} with
+     * methods from {@link ClassMetadata}, which are shared by everyone who asks for them.
+     *
+     * @param method The method.
+     *
+     * @return An accessible copy of the method.
+     */
+    public static @NotNull Method accessibleCopy(@NotNull Method method) {
+        return makeAccessable(copyOf(method));
+    }
+
     public static @Nullable Object callMethod(@NotNull Object obj, @NotNull String methodName, Class<?> @NotNull [] parameterTypes, Object @NotNull ... parameters) {
         try { return callMethod(obj.getClass().getMethod(methodName, parameterTypes), obj, parameters); } catch(Exception e) { throw Errors.makeRuntimeException(e); }
     }
@@ -92,11 +118,11 @@ public class Reflection {
     }
 
     public static @NotNull List<Method> findGetters(@NotNull Class<?> cls) {
-        return Reflection2.getMethods(cls).filter(m -> ((m.getReturnType() != Void.class) && (m.getParameterCount() == 0))).collect(Collectors.toList());
+        return new ArrayList<>(ClassMetadata.forClass(cls).getGetters());
     }
 
     public static @NotNull List<Method> findSetters(@NotNull Class<?> cls) {
-        return findSetterStream(cls).collect(Collectors.toList());
+        return new ArrayList<>(ClassMetadata.forClass(cls).getSetters());
     }
 
     public static @NotNull List<Method> findSettersForTypes(@NotNull Class<?> cls, @NotNull Class<?>... paramTypes) {
@@ -142,12 +168,25 @@ public class Reflection {
         return Stream.of(element.getAnnotationsByType(annotationClass)).findFirst().orElse(null);
     }
 
+    public static @NotNull List<Field> getCachedFields(@NotNull Class<?> cls)                                                                       { return ClassMetadata.forClass(cls).getAllFields(); }
+
+    public static @NotNull List<Field> getCachedFieldsWithAnnotation(@NotNull Class<?> cls, @NotNull Class<? extends Annotation> annotationClass)   { return ClassMetadata.forClass(cls).getFieldsWithAnnotation(annotationClass); }
+
+    public static @NotNull List<Method> getCachedGetters(@NotNull Class<?> cls)                                                                     { return ClassMetadata.forClass(cls).getGetters(); }
+
+    public static @NotNull List<Method> getCachedMethods(@NotNull Class<?> cls)                                                                     { return ClassMetadata.forClass(cls).getAllMethods(); }
+
+    public static @NotNull List<Method> getCachedMethodsWithAnnotation(@NotNull Class<?> cls, @NotNull Class<? extends Annotation> annotationClass) { return ClassMetadata.forClass(cls).getMethodsWithAnnotation(annotationClass); }
+
+    public static @NotNull List<Method> getCachedSetters(@NotNull Class<?> cls)                                                                     { return ClassMetadata.forClass(cls).getSetters(); }
+
     public static @NotNull Field getField(@NotNull Class<?> cls, @NotNull String name) {
-        return Reflection2.getFields(cls, true).filter(f -> f.getName().equals(name)).findFirst().orElseThrow(NoSuchElementException::new);
+        return Null.requireOrThrow(getFieldOrNull(cls, name), NoSuchElementException::new);
     }
 
     public static @Nullable Field getFieldOrNull(@NotNull Class<?> cls, @NotNull String name) {
-        return Reflection2.getFields(cls, true).filter(f -> f.getName().equals(name)).findFirst().orElse(null);
+        Field field = ClassMetadata.forClass(cls).getField(name);
+        return ((field == null) ? null : copyOf(field));
     }
 
     public static @NotNull TypeInfo getFieldTypeInfo(@NotNull Field field) {
@@ -233,7 +272,8 @@ public class Reflection {
      * @return The method.
      */
     public static @Nullable Method getMethodOrNull(@NotNull Class<?> cls, @NotNull String name, boolean exactTypeMatch, @NotNull Class<?>... parameterTypes) {
-        return Reflection2.getMethods(cls).filter(m -> (m.getName().equals(name) && doTypesMatch(exactTypeMatch, m.getParameterTypes(), parameterTypes))).findFirst().orElse(null);
+        for(Method m : ClassMetadata.forClass(cls).getMethods(name)) if(doTypesMatch(exactTypeMatch, m.getParameterTypes(), parameterTypes)) return copyOf(m);
+        return null;
     }
 
     public static @NotNull @SafeVarargs List<Method> getMethodsWithAllAnnotations(@NotNull Class<?> cls, @NotNull Class<? extends Annotation>... annotationClasses) {
@@ -346,8 +386,27 @@ public class Reflection {
         catch(Exception e) { throw getError(e, "msg.err.reflect.set_fld_val_failed", field.getType(), ((obj == null) ? field.getDeclaringClass() : obj.getClass()).getName(), e); }
     }
 
+    /*
+     * The lookups by name hand out copies of the cached members, as Class.getDeclaredField and Class.getDeclaredMethod do, so that a caller who makes one accessible doesn't
+     * change the one everybody else gets from ClassMetadata.
+     */
+    private static @NotNull Field copyOf(@NotNull Field field) {
+        try { return field.getDeclaringClass().getDeclaredField(field.getName()); } catch(Exception e) { throw Errors.makeRuntimeException(e); }
+    }
+
+    private static @NotNull Method copyOf(@NotNull Method method) {
+        Class<?> cls = method.getDeclaringClass();
+        try {
+            Method copy = cls.getDeclaredMethod(method.getName(), method.getParameterTypes());
+            if(copy.equals(method)) return copy;
+        }
+        catch(NoSuchMethodException ignore) { }
+        // A bridge method has the same name and parameter types as the method it bridges to, and getDeclaredMethod returns the other one.
+        return Stream.of(cls.getDeclaredMethods()).filter(method::equals).findFirst().orElseThrow();
+    }
+
     private static @NotNull Stream<Method> findSetterStream(@NotNull Class<?> cls) {
-        return Reflection2.getMethods(cls).filter(m -> ((m.getReturnType() == Void.TYPE) && (m.getParameterCount() == 1) && m.getName().startsWith("set")));
+        return ClassMetadata.forClass(cls).getSetters().stream();
     }
 
     private static @NotNull List<Type> getActualTypeArguments(@NotNull Type type) {
@@ -45,7 +45,7 @@ public final class Reflection2 extends Reflection {
     }
 
     public static @SafeVarargs @NotNull Stream<Field> getAnnotatedFields(@NotNull Class<?> clazz, boolean lookInSuper, Class<? extends Annotation>... annotationClasses) {
-        return getFields(clazz, true).filter(f -> hasAnyAnnotation(f, annotationClasses));
+        return getFields(clazz, lookInSuper).filter(f -> hasAnyAnnotation(f, annotationClasses));
     }
 
     public static @SafeVarargs @NotNull Stream<Method> getAnnotatedMethods(@NotNull Class<?> clazz, Class<? extends Annotation>... annotationClasses) {
@@ -53,7 +53,7 @@ public final class Reflection2 extends Reflection {
     }
 
     public static @SafeVarargs @NotNull Stream<Method> getAnnotatedMethods(@NotNull Class<?> clazz, boolean lookInSuper, Class<? extends Annotation>... annotationClasses) {
-        return getMethods(clazz, true).filter(f -> hasAnyAnnotation(f, annotationClasses));
+        return getMethods(clazz, lookInSuper).filter(f -> hasAnyAnnotation(f, annotationClasses));
     }
 
     public static @NotNull Stream<Class<?>> getClassHierarchy(@NotNull Class<?> clazz) {
@@ -78,11 +78,12 @@ public final class Reflection2 extends Reflection {
     }
 
     public static Field getField(@NotNull Class<?> clazz, @NotNull String name, boolean lookInSuper) {
-        return getFields(clazz, lookInSuper).filter(f -> f.getName().equals(name)).findFirst().orElse(null);
+        return (lookInSuper ? ClassMetadata.forClass(clazz).getField(name) : getFields(clazz, false).filter(f -> f.getName().equals(name)).findFirst().orElse(null));
     }
 
     public static @NotNull Stream<Field> getFields(@NotNull Class<?> clazz, boolean lookInSuper) {
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new FieldIterator(clazz, lookInSuper), Spliterator.IMMUTABLE | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+        ClassMetadata md = ClassMetadata.forClass(clazz);
+        return (lookInSuper ? md.getAllFields() : md.getDeclaredFields()).stream();
     }
 
     public static @NotNull Stream<Field> getFields(@NotNull Class<?> clazz) {
@@ -94,7 +95,7 @@ public final class Reflection2 extends Reflection {
     }
 
     public static <A extends Annotation> @NotNull Stream<AnnotatedReference<A, Field>> getFieldsWithAnnotation(@NotNull Class<?> clazz, @NotNull Class<A> annotationClass, boolean lookInSuper) {
-        return getFields(clazz, lookInSuper).filter(f -> f.isAnnotationPresent(annotationClass)).map(f -> new AnnotatedReference<>(f.getAnnotation(annotationClass), f));
+        return (lookInSuper ? ClassMetadata.forClass(clazz).getFieldsWithAnnotation(annotationClass).stream() : getFields(clazz, false).filter(f -> f.isAnnotationPresent(annotationClass))).map(f -> new AnnotatedReference<>(f.getAnnotation(annotationClass), f));
     }
 
     public static @NotNull Stream<Method> getMethods(@NotNull Class<?> clazz, @NotNull String name, Class<?> @NotNull ... parameterClasses) {
@@ -102,11 +103,13 @@ public final class Reflection2 extends Reflection {
     }
 
     public static @NotNull Stream<Method> getMethods(@NotNull Class<?> clazz, boolean lookInSuper, @NotNull String name, Class<?> @NotNull ... parameterClasses) {
-        return getMethods(clazz, lookInSuper).filter(m -> m.getName().equals(name) && Reflection.doTypesMatch(false, m.getParameterTypes(), parameterClasses));
+        Stream<Method> stream = (lookInSuper ? ClassMetadata.forClass(clazz).getMethods(name).stream() : getMethods(clazz, false).filter(m -> m.getName().equals(name)));
+        return stream.filter(m -> Reflection.doTypesMatch(false, m.getParameterTypes(), parameterClasses));
     }
 
     public static @NotNull Stream<Method> getMethods(@NotNull Class<?> clazz, boolean lookInSuper) {
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new MethodIterator(clazz, lookInSuper), Spliterator.IMMUTABLE | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+        ClassMetadata md = ClassMetadata.forClass(clazz);
+        return (lookInSuper ? md.getAllMethods() : md.getDeclaredMethods()).stream();
     }
 
     public static @NotNull Stream<Method> getMethods(@NotNull Class<?> clazz) {
@@ -118,64 +121,6 @@ public final class Reflection2 extends Reflection {
     }
 
     public static <A extends Annotation> @NotNull Stream<AnnotatedReference<A, Method>> getMethodsWithAnnotation(@NotNull Class<?> clazz, Class<A> annotationClass, boolean lookInSuper) {
-        return getMethods(clazz, lookInSuper).filter(m -> m.isAnnotationPresent(annotationClass)).map(m -> new AnnotatedReference<>(m.getAnnotation(annotationClass), m));
-    }
-
-    private static final class FieldIterator implements Iterator<Field> {
-        private       Class<?> clazz;
-        private       Field[]  fields;
-        private       int      idx;
-        private final boolean  lookInSuper;
-
-        public FieldIterator(@NotNull Class<?> clazz, boolean lookInSuper) {
-            this.clazz       = clazz;
-            this.idx         = 0;
-            this.fields      = clazz.getDeclaredFields();
-            this.lookInSuper = lookInSuper;
-        }
-
-        public @Override boolean hasNext() {
-            while(clazz != null) {
-                if(idx < fields.length) return true;
-                clazz  = (lookInSuper ? clazz.getSuperclass() : null);
-                idx    = 0;
-                fields = ((clazz == null) ? new Field[0] : clazz.getDeclaredFields());
-            }
-            return false;
-        }
-
-        public @Override Field next() {
-            if(hasNext()) return fields[idx++];
-            throw new NoSuchElementException();
-        }
-    }
-
-    private static final class MethodIterator implements Iterator<Method> {
-        private       Class<?> clazz;
-        private       Method[] methods;
-        private       int      idx;
-        private final boolean  lookInSuper;
-
-        public MethodIterator(@NotNull Class<?> clazz, boolean lookInSuper) {
-            this.clazz       = clazz;
-            this.methods     = clazz.getDeclaredMethods();
-            this.idx         = 0;
-            this.lookInSuper = lookInSuper;
-        }
-
-        public @Override boolean hasNext() {
-            while(clazz != null) {
-                if(idx < methods.length) return true;
-                clazz   = (lookInSuper ? clazz.getSuperclass() : null);
-                idx     = 0;
-                methods = ((clazz == null) ? new Method[0] : clazz.getDeclaredMethods());
-            }
-            return false;
-        }
-
-        public @Override Method next() {
-            if(hasNext()) return methods[idx++];
-            throw new NoSuchElementException();
-        }
+        return (lookInSuper ? ClassMetadata.forClass(clazz).getMethodsWithAnnotation(annotationClass).stream() : getMethods(clazz, false).filter(m -> m.isAnnotationPresent(annotationClass))).map(m -> new AnnotatedReference<>(m.getAnnotation(annotationClass), m));
     }
 }
@@ -22,6 +22,7 @@ package com.projectgalen.lib.utils.regex;
 
 import com.projectgalen.lib.utils.ObjCache;
 import com.projectgalen.lib.utils.PGProperties;
+import com.projectgalen.lib.utils.PGResources;
 import com.projectgalen.lib.utils.Range;
 import org.intellij.lang.annotations.Language;
 import org.intellij.lang.annotations.MagicConstant;
@@ -38,7 +39,7 @@ import static java.util.regex.Pattern.UNICODE_CHARACTER_CLASS;
 @SuppressWarnings("unused")
 public final class Regex {
 
-    private static final PGProperties props = PGProperties.getXMLProperties("pg_properties.xml", PGProperties.class);
+    private static final PGProperties props = PGResources.props();
 
     private Regex() { }
 
@@ -47,20 +48,34 @@ public final class Regex {
     }
 
     public static @NotNull Matcher getMatcher(@NotNull @NonNls @Language("RegExp") String pattern, @MagicConstant(flagsFromClass = Pattern.class) int flags, @NotNull @NonNls CharSequence input) {
-        synchronized(CacheHolder.CACHE) {
-            String  key = String.format(props.getProperty("regex.cache.key.format", false), pattern, flags);
-            Pattern p   = CacheHolder.CACHE.get(key, Pattern.class);
-            if(p == null) {
-                try {
-                    p = Pattern.compile(pattern, flags);
-                    CacheHolder.CACHE.store(key, p);
-                }
-                catch(Throwable e) {
-                    e.printStackTrace(System.err);
-                    throw new RuntimeException(e);
-                }
-            }
-            return p.matcher(input);
+        return getPattern(pattern, flags).matcher(input);
+    }
+
+    public static @NotNull Pattern getPattern(@NotNull @NonNls @Language("RegExp") String pattern) {
+        return getPattern(pattern, 0);
+    }
+
+    /**
+     * Returns the compiled {@link Pattern} for the given regular expression and flags. Compiled patterns are kept in a bounded cache keyed by the pattern string. Each cache entry
+     * holds a short, immutable chain of patterns compiled with different flags so a cache hit neither allocates a key nor takes a lock.
+     *
+     * @param pattern The regular expression.
+     * @param flags   The {@link Pattern} flags.
+     *
+     * @return The compiled pattern.
+     */
+    public static @NotNull Pattern getPattern(@NotNull @NonNls @Language("RegExp") String pattern, @MagicConstant(flagsFromClass = Pattern.class) int flags) {
+        CachedPattern head = CacheHolder.CACHE.get(pattern, CachedPattern.class);
+        for(CachedPattern cp = head; cp != null; cp = cp.next) if(cp.flags == flags) return cp.pattern;
+
+        try {
+            Pattern p = Pattern.compile(pattern, flags);
+            CacheHolder.CACHE.store(pattern, new CachedPattern(flags, p, head));
+            return p;
+        }
+        catch(Throwable e) {
+            e.printStackTrace(System.err);
+            throw new RuntimeException(e);
         }
     }
 
@@ -127,7 +142,19 @@ public final class Regex {
         return sb.toString();
     }
 
+    private static final class CachedPattern {
+        private final int           flags;
+        private final Pattern       pattern;
+        private final CachedPattern next;
+
+        public CachedPattern(int flags, @NotNull Pattern pattern, CachedPattern next) {
+            this.flags   = flags;
+            this.pattern = pattern;
+            this.next    = next;
+        }
+    }
+
     private static final class CacheHolder {
-        private static final ObjCache CACHE = new ObjCache();
+        private static final ObjCache CACHE = new ObjCache(Integer.parseInt(props.getProperty("regex.cache.max_size", "1024", false)));
     }
 }
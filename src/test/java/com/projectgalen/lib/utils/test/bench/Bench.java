@@ -0,0 +1,125 @@
+package com.projectgalen.lib.utils.test.bench;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * A small timing harness for the benchmark programs in this package. It is not JMH: every measurement is run for a number of warm-up rounds and then for a number of timed
+ * rounds, and the median time per operation of the timed rounds is printed. The numbers are only good for comparing the alternatives measured by the same program on the same
+ * machine.
+ * <p>
+ * The programs are not unit tests and are not run by the build. Run one after <code>mvn test-compile</code> with:
+ * <pre>
+ *     java -cp target/classes:target/test-classes com.projectgalen.lib.utils.test.bench.RegexBenchmark
+ * </pre>
+ */
+public final class Bench {
+
+    public static volatile Object sink;
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int TIMED_ROUNDS  = 7;
+
+    private Bench() { }
+
+    public static void header(@NotNull String title) {
+        System.out.printf("%n%s%n%s%n", title, "-".repeat(title.length()));
+    }
+
+    /**
+     * Times an operation on the calling thread.
+     *
+     * @param name       The name printed with the result.
+     * @param operations The number of operations performed by one call to <code>round</code>.
+     * @param round      Performs <code>operations</code> operations.
+     *
+     * @return The median time per operation in nanoseconds.
+     */
+    public static double measure(@NotNull String name, long operations, @NotNull Round round) {
+        double[] times = new double[TIMED_ROUNDS];
+        try {
+            for(int i = 0; i < WARMUP_ROUNDS; i++) round.run(operations);
+            for(int i = 0; i < TIMED_ROUNDS; i++) {
+                long start = System.nanoTime();
+                round.run(operations);
+                times[i] = ((double)(System.nanoTime() - start) / operations);
+            }
+        }
+        catch(Exception e) {
+            throw new RuntimeException(e);
+        }
+        return report(name, times);
+    }
+
+    /**
+     * Times an operation run on several threads at once. The time per operation is the elapsed time divided by the total number of operations on all of the threads.
+     *
+     * @param name       The name printed with the result.
+     * @param threads    The number of threads.
+     * @param operations The number of operations performed by one call to <code>round</code> on each thread.
+     * @param round      Performs <code>operations</code> operations.
+     *
+     * @return The median time per operation in nanoseconds.
+     */
+    public static double measure(@NotNull String name, int threads, long operations, @NotNull Round round) {
+        double[] times = new double[TIMED_ROUNDS];
+        for(int i = 0; i < WARMUP_ROUNDS; i++) concurrently(threads, operations, round);
+        for(int i = 0; i < TIMED_ROUNDS; i++) times[i] = ((double)concurrently(threads, operations, round) / (operations * threads));
+        return report(String.format("%s (%d threads)", name, threads), times);
+    }
+
+    public static void ratio(@NotNull String name, double before, double after) {
+        System.out.printf("%-60s %10.2fx%n", name, (before / after));
+    }
+
+    private static long concurrently(int threads, long operations, @NotNull Round round) {
+        CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+        List<Thread>  list    = new ArrayList<>();
+        Throwable[]   error   = new Throwable[1];
+
+        for(int i = 0; i < threads; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    barrier.await();
+                    round.run(operations);
+                    barrier.await();
+                }
+                catch(Throwable e) {
+                    synchronized(error) { error[0] = e; }
+                    barrier.reset();
+                }
+            });
+            t.setDaemon(true);
+            t.start();
+            list.add(t);
+        }
+
+        try {
+            barrier.await();
+            long start = System.nanoTime();
+            barrier.await();
+            long elapsed = (System.nanoTime() - start);
+            for(Thread t : list) t.join();
+            return elapsed;
+        }
+        catch(Exception e) {
+            synchronized(error) { throw new RuntimeException(((error[0] == null) ? e : error[0])); }
+        }
+    }
+
+    private static double report(@NotNull String name, double @NotNull [] times) {
+        Arrays.sort(times);
+        double median = times[times.length / 2];
+        System.out.printf("%-60s %12.1f ns/op   (min %.1f, max %.1f)%n", name, median, times[0], times[times.length - 1]);
+        return median;
+    }
+
+    @FunctionalInterface
+    public interface Round {
+        void run(long operations) throws Exception;
+    }
+}
@@ -0,0 +1,48 @@
+package com.projectgalen.lib.utils.test.bench;
+
+import com.projectgalen.lib.utils.BinaryProperties;
+import com.projectgalen.lib.utils.PGResources;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Properties;
+
+/**
+ * Loads the library's message catalog from its XML resource and from the compiled copy written by the build (see {@link BinaryProperties}). The compiled copy is timed both
+ * loading alone and loading and then reading every entry, since entries are only decoded when they are looked at. The time printed is per load.
+ */
+public final class BinaryPropertiesBenchmark {
+
+    private BinaryPropertiesBenchmark() { }
+
+    public static void main(String... args) {
+        URL xml = PGResources.class.getResource("pg_messages.xml");
+        URL bin = PGResources.class.getResource("pg_messages." + BinaryProperties.EXTENSION);
+
+        if((xml == null) || (bin == null)) {
+            System.err.println("pg_messages.xml and pg_messages.pgbin are written by the build. Run \"mvn test-compile\" first.");
+            return;
+        }
+
+        Bench.header("Loading the message catalog");
+        double x = Bench.measure("Properties.loadFromXML", 2_000, n -> {
+            for(long i = 0; i < n; i++) {
+                try(InputStream in = xml.openStream()) {
+                    Properties p = new Properties();
+                    p.loadFromXML(in);
+                    Bench.sink = p;
+                }
+            }
+        });
+        double b = Bench.measure("BinaryProperties.load", 2_000, n -> { for(long i = 0; i < n; i++) Bench.sink = BinaryProperties.load(bin); });
+        double r = Bench.measure("BinaryProperties.load and read every entry", 2_000, n -> {
+            for(long i = 0; i < n; i++) {
+                BinaryProperties p = BinaryProperties.load(bin);
+                for(String key : p.keySet()) Bench.sink = p.getProperty(key);
+            }
+        });
+
+        Bench.ratio("speed-up, load", x, b);
+        Bench.ratio("speed-up, load and read every entry", x, r);
+    }
+}
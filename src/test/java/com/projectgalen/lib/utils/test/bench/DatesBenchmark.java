@@ -0,0 +1,40 @@
+package com.projectgalen.lib.utils.test.bench;
+
+import com.projectgalen.lib.utils.Dates;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares {@link Dates#format(String, Date)}, which keeps one formatter per thread and pattern, with the way it worked before, which shared one formatter per pattern under
+ * a single lock. The difference only shows when several threads format at the same time.
+ */
+public final class DatesBenchmark {
+
+    private static final String                        PATTERN        = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+    private static final Date                          DATE           = new Date(1_700_000_000_000L);
+    private static final Map<String, SimpleDateFormat> OLD_FORMATTERS = new TreeMap<>();
+
+    private DatesBenchmark() { }
+
+    public static void main(String... args) {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        Bench.header("Dates.format");
+        double old1 = Bench.measure("shared formatters under one lock (before)", 200_000, n -> { for(long i = 0; i < n; i++) Bench.sink = oldFormat(PATTERN, DATE); });
+        double new1 = Bench.measure("Dates.format", 200_000, n -> { for(long i = 0; i < n; i++) Bench.sink = Dates.format(PATTERN, DATE); });
+        double oldN = Bench.measure("shared formatters under one lock (before)", threads, 100_000, n -> { for(long i = 0; i < n; i++) Bench.sink = oldFormat(PATTERN, DATE); });
+        double newN = Bench.measure("Dates.format", threads, 100_000, n -> { for(long i = 0; i < n; i++) Bench.sink = Dates.format(PATTERN, DATE); });
+
+        Bench.ratio("speed-up, one thread", old1, new1);
+        Bench.ratio(String.format("speed-up, %d threads", threads), oldN, newN);
+    }
+
+    private static String oldFormat(String pattern, Date date) {
+        synchronized(OLD_FORMATTERS) {
+            return OLD_FORMATTERS.computeIfAbsent(pattern, SimpleDateFormat::new).format(date);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.projectgalen.lib.utils.test.bench;
+
+import com.projectgalen.lib.utils.macro.Macro;
+import com.projectgalen.lib.utils.macro.MacroTemplate;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders a templated SQL statement with {@link Macro#replaceMacros(String, Function)}, with a precompiled {@link MacroTemplate}, and with a copy of the regular expression
+ * passes that <code>Macro.replaceMacros</code> used before. The copy uses precompiled patterns, so it is, if anything, a little faster than the original was. One of the
+ * references has a value that contains another reference. The time printed is per rendered statement.
+ */
+public final class MacroBenchmark {
+
+    private static final String                   SQL       = "SELECT ${columns} FROM ${schema}.${table} WHERE ${key} = ? AND status = '${status}' AND note <> '\\${literal}'";
+    private static final Map<String, String>      VALUES    = Map.of("columns", "id, name, amount, created", "schema", "${env}_main", "env", "prod", "table", "orders",
+                                                                     "key", "order_id", "status", "OPEN");
+    private static final Function<String, String> LOOKUP    = VALUES::get;
+    private static final Pattern                  OLD_REF   = Pattern.compile("(?<!\\\\)\\$\\{([^}]+)}");
+    private static final Pattern                  OLD_QUIET = Pattern.compile("\\\\(\\$\\{([^}]+)})");
+
+    private MacroBenchmark() { }
+
+    public static void main(String... args) {
+        MacroTemplate template = MacroTemplate.compile(SQL);
+
+        if(!oldReplaceMacros(SQL).equals(Macro.replaceMacros(SQL, LOOKUP))) throw new IllegalStateException("The old and new expansions differ.");
+
+        Bench.header("Rendering templated SQL");
+        double old = Bench.measure("regular expression passes (before)", 500_000, n -> { for(long i = 0; i < n; i++) Bench.sink = oldReplaceMacros(SQL); });
+        double mac = Bench.measure("Macro.replaceMacros", 500_000, n -> { for(long i = 0; i < n; i++) Bench.sink = Macro.replaceMacros(SQL, LOOKUP); });
+        double tpl = Bench.measure("MacroTemplate.render", 500_000, n -> { for(long i = 0; i < n; i++) Bench.sink = template.render(LOOKUP); });
+
+        Bench.ratio("speed-up, Macro.replaceMacros", old, mac);
+        Bench.ratio("speed-up, MacroTemplate.render", old, tpl);
+    }
+
+    private static String oldReplacement(String name, Set<String> deadManSet) {
+        if(deadManSet.contains(name)) throw new IllegalStateException(name);
+        try {
+            deadManSet.add(name);
+            String input = LOOKUP.apply(name);
+            return ((input == null) ? null : oldReplaceMacros(input, deadManSet));
+        }
+        finally {
+            deadManSet.remove(name);
+        }
+    }
+
+    private static String oldReplaceMacros(String input) {
+        return oldReplaceMacros(input, new TreeSet<>());
+    }
+
+    private static String oldReplaceMacros(String input, Set<String> deadManSet) {
+        StringBuilder sb = new StringBuilder();
+        Matcher       m  = OLD_REF.matcher(input.replace("\\\\", "ð"));
+        while(m.find()) {
+            String repl = oldReplacement(m.group(1), deadManSet);
+            m.appendReplacement(sb, Matcher.quoteReplacement((repl == null) ? m.group() : repl));
+        }
+        String str = m.appendTail(sb).toString();
+
+        sb = new StringBuilder();
+        m  = OLD_QUIET.matcher(str);
+        while(m.find()) m.appendReplacement(sb, Matcher.quoteReplacement(m.group(1)));
+        return m.appendTail(sb).toString().replace("ð", "\\");
+    }
+}
@@ -0,0 +1,41 @@
+package com.projectgalen.lib.utils.test.bench;
+
+import com.projectgalen.lib.utils.regex.Regex;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link Regex#getMatcher(String, CharSequence)} on a cache hit with the way it worked before, which formatted a key string and looked it up while holding the lock of
+ * one shared cache. Both are timed on one thread and on several threads.
+ */
+public final class RegexBenchmark {
+
+    private static final String               PATTERN   = "\\s*,\\s*";
+    private static final String               INPUT     = "alpha, beta ,gamma";
+    private static final String               KEY_FMT   = "♚%s♛%d";
+    private static final Map<String, Pattern> OLD_CACHE = new HashMap<>();
+
+    private RegexBenchmark() { }
+
+    public static void main(String... args) {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        Bench.header("Regex.getMatcher, cached pattern");
+        double old1 = Bench.measure("locked cache with formatted key (before)", 1_000_000, n -> { for(long i = 0; i < n; i++) Bench.sink = oldGetMatcher(PATTERN, 0, INPUT); });
+        double new1 = Bench.measure("Regex.getMatcher", 1_000_000, n -> { for(long i = 0; i < n; i++) Bench.sink = Regex.getMatcher(PATTERN, INPUT); });
+        double oldN = Bench.measure("locked cache with formatted key (before)", threads, 500_000, n -> { for(long i = 0; i < n; i++) Bench.sink = oldGetMatcher(PATTERN, 0, INPUT); });
+        double newN = Bench.measure("Regex.getMatcher", threads, 500_000, n -> { for(long i = 0; i < n; i++) Bench.sink = Regex.getMatcher(PATTERN, INPUT); });
+
+        Bench.ratio("speed-up, one thread", old1, new1);
+        Bench.ratio(String.format("speed-up, %d threads", threads), oldN, newN);
+    }
+
+    private static Matcher oldGetMatcher(String pattern, int flags, CharSequence input) {
+        synchronized(OLD_CACHE) {
+            return OLD_CACHE.computeIfAbsent(String.format(KEY_FMT, pattern, flags), k -> Pattern.compile(pattern, flags)).matcher(input);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.projectgalen.lib.utils.test.bench;
+
+import com.projectgalen.lib.utils.PGResourceBundle;
+import com.projectgalen.lib.utils.PGResources;
+
+import java.util.Locale;
+
+/**
+ * Looks up a cached XML bundle with {@link PGResourceBundle#getXMLPGBundle(String)}, which has to walk the stack to find the caller's class loader, and with
+ * {@link PGResourceBundle#getXMLPGBundle(String, Locale, ClassLoader)}, which is given the loader. Also times a message lookup in a bundle that is already at hand. The time
+ * printed is per call.
+ */
+public final class ResourceBundleBenchmark {
+
+    private ResourceBundleBenchmark() { }
+
+    public static void main(String... args) {
+        String           baseName = PGResources.MESSAGES_BASE_NAME;
+        Locale           locale   = Locale.getDefault();
+        ClassLoader      loader   = ResourceBundleBenchmark.class.getClassLoader();
+        PGResourceBundle bundle   = PGResourceBundle.getXMLPGBundle(baseName, locale, loader);
+
+        Bench.header("Cached XML bundles");
+        Bench.measure("getXMLPGBundle(baseName), finds the caller", 1_000_000, n -> { for(long i = 0; i < n; i++) Bench.sink = PGResourceBundle.getXMLPGBundle(baseName); });
+        Bench.measure("getXMLPGBundle(baseName, locale, loader)", 1_000_000, n -> { for(long i = 0; i < n; i++) Bench.sink = PGResourceBundle.getXMLPGBundle(baseName, locale, loader); });
+        Bench.measure("getString on a bundle at hand", 1_000_000, n -> { for(long i = 0; i < n; i++) Bench.sink = bundle.getString("msg.err.def.not_setter"); });
+    }
+}
@@ -0,0 +1,80 @@
+package com.projectgalen.lib.utils.test.bench;
+
+import com.projectgalen.lib.utils.JDBC;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads an in-memory result set three ways: the way {@link JDBC#getResults(ResultSet)} used to, asking for the metadata and boxing every column on every row, with the current
+ * {@link JDBC#getResults(ResultSet)}, and with {@link JDBC#forEachRow(ResultSet, com.projectgalen.lib.utils.delegates.ThrowingConsumer)} using the primitive getters of the row
+ * view. The result set is a {@link Proxy} with no driver behind it, so the numbers show the cost on the library's side only. The time printed is per row.
+ */
+public final class ResultRowBenchmark {
+
+    private static final int    ROWS    = 100_000;
+    private static final int[]  TYPES   = { Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.VARCHAR };
+    private static final String VARCHAR = "some text";
+
+    private ResultRowBenchmark() { }
+
+    public static void main(String... args) {
+        Bench.header(String.format("Reading %,d rows of (INTEGER, BIGINT, DOUBLE, VARCHAR)", ROWS));
+        double old = Bench.measure("metadata and getObject on every row (before)", ROWS, n -> Bench.sink = oldGetResults(resultSet(n)));
+        double all = Bench.measure("JDBC.getResults", ROWS, n -> Bench.sink = JDBC.getResults(resultSet(n)));
+        double row = Bench.measure("JDBC.forEachRow with primitive getters", ROWS, n -> {
+            double[] sum = new double[1];
+            JDBC.forEachRow(resultSet(n), r -> sum[0] += (r.getInt(1) + r.getLong(2) + r.getDouble(3) + r.getString(4).length()));
+            Bench.sink = sum[0];
+        });
+
+        Bench.ratio("speed-up, JDBC.getResults", old, all);
+        Bench.ratio("speed-up, JDBC.forEachRow", old, row);
+    }
+
+    private static ResultSetMetaData metaData() {
+        return (ResultSetMetaData)Proxy.newProxyInstance(ResultRowBenchmark.class.getClassLoader(), new Class<?>[] { ResultSetMetaData.class }, (p, m, a) -> switch(m.getName()) {
+            case "getColumnCount" -> TYPES.length;
+            case "getColumnType" -> TYPES[(Integer)a[0] - 1];
+            case "getColumnLabel", "getColumnName" -> ("C" + a[0]);
+            default -> throw new UnsupportedOperationException(m.getName());
+        });
+    }
+
+    private static List<Object[]> oldGetResults(ResultSet resultSet) throws SQLException {
+        List<Object[]> list = new ArrayList<>();
+        while(resultSet.next()) {
+            int      rcc = resultSet.getMetaData().getColumnCount();
+            Object[] row = new Object[rcc];
+            for(int c = 0; c < rcc; ++c) row[c] = resultSet.getObject(c + 1);
+            list.add(row);
+        }
+        return list;
+    }
+
+    private static ResultSet resultSet(long rows) {
+        long[] current = { 0 };
+        return (ResultSet)Proxy.newProxyInstance(ResultRowBenchmark.class.getClassLoader(), new Class<?>[] { ResultSet.class }, (p, m, a) -> switch(m.getName()) {
+            case "next" -> (++current[0] <= rows);
+            case "getMetaData" -> metaData();
+            case "getInt" -> (int)current[0];
+            case "getLong" -> current[0];
+            case "getDouble" -> (current[0] * 0.5);
+            case "getString" -> VARCHAR;
+            case "getObject" -> switch((Integer)a[0]) {
+                case 1 -> (int)current[0];
+                case 2 -> current[0];
+                case 3 -> (current[0] * 0.5);
+                default -> VARCHAR;
+            };
+            case "wasNull" -> false;
+            case "setFetchSize", "close" -> null;
+            default -> throw new UnsupportedOperationException(m.getName());
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.projectgalen.lib.utils.test.bench;
+
+import com.projectgalen.lib.utils.collections.ring.ByteRingBuffer;
+import com.projectgalen.lib.utils.collections.ring.ConcurrentByteRingBuffer;
+import com.projectgalen.lib.utils.collections.ring.ConcurrentByteRingBuffer.Mode;
+import com.projectgalen.lib.utils.collections.ring.WaitStrategy;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Moves bytes from producer threads to a consumer thread through the monitor-based {@link ByteRingBuffer} and through {@link ConcurrentByteRingBuffer} with each of its wait
+ * strategies. The single-producer runs use one producer. The multi-producer runs use {@link #PRODUCERS} producers that write whole chunks at the same time, and the consumer
+ * checks that no chunk was interleaved with another. The time printed is per chunk of {@link #CHUNK} bytes.
+ */
+public final class RingBufferBenchmark {
+
+    private static final int CHUNK     = 64;
+    private static final int CAPACITY  = 64 * 1024;
+    private static final int PRODUCERS = 4;
+
+    private RingBufferBenchmark() { }
+
+    public static void main(String... args) {
+        long chunks = 200_000;
+
+        Bench.header(String.format("One producer to one consumer, %d byte chunks", CHUNK));
+        double before = Bench.measure("ByteRingBuffer", chunks, n -> monitor(n, 1));
+        for(WaitStrategy strategy : WaitStrategy.values()) {
+            double after = Bench.measure("ConcurrentByteRingBuffer, SINGLE_PRODUCER, " + strategy, chunks, n -> concurrent(n, 1, Mode.SINGLE_PRODUCER, strategy));
+            Bench.ratio("speed-up over ByteRingBuffer", before, after);
+        }
+
+        Bench.header(String.format("%d producers to one consumer, %d byte chunks", PRODUCERS, CHUNK));
+        before = Bench.measure("ByteRingBuffer", chunks, n -> monitor(n, PRODUCERS));
+        for(WaitStrategy strategy : WaitStrategy.values()) {
+            double after = Bench.measure("ConcurrentByteRingBuffer, MULTI_PRODUCER, " + strategy, chunks, n -> concurrent(n, PRODUCERS, Mode.MULTI_PRODUCER, strategy));
+            Bench.ratio("speed-up over ByteRingBuffer", before, after);
+        }
+    }
+
+    private static void check(byte @NotNull [] buf, int cnt) {
+        if(cnt != CHUNK) throw new IllegalStateException("Read " + cnt + " bytes instead of a whole chunk.");
+        for(byte b : buf) if(b != buf[0]) throw new IllegalStateException("Chunks from different producers were interleaved.");
+    }
+
+    private static byte @NotNull [] chunk(int producer) {
+        byte[] chunk = new byte[CHUNK];
+        Arrays.fill(chunk, (byte)producer);
+        return chunk;
+    }
+
+    private static void concurrent(long chunks, int producers, Mode mode, WaitStrategy strategy) throws InterruptedException {
+        ConcurrentByteRingBuffer ring = new ConcurrentByteRingBuffer(CAPACITY, mode, strategy);
+        long                     each = (chunks / producers);
+        List<Thread>             list = new ArrayList<>(producers);
+
+        for(int p = 0; p < producers; p++) {
+            byte[] chunk = chunk(p);
+            list.add(new Thread(() -> { try { for(long i = 0; i < each; i++) ring.put(chunk); } catch(InterruptedException ignore) { } }));
+        }
+
+        byte[] buf = new byte[CHUNK];
+        for(Thread t : list) t.start();
+        for(long i = 0, n = (each * producers); i < n; i++) check(buf, ring.take(buf));
+        for(Thread t : list) t.join();
+    }
+
+    private static void monitor(long chunks, int producers) throws InterruptedException {
+        ByteRingBuffer ring = new ByteRingBuffer(CAPACITY);
+        long           each = (chunks / producers);
+        List<Thread>   list = new ArrayList<>(producers);
+
+        for(int p = 0; p < producers; p++) {
+            byte[] chunk = chunk(p);
+            list.add(new Thread(() -> { for(long i = 0; i < each; i++) ring.put(chunk); }));
+        }
+
+        byte[] buf = new byte[CHUNK];
+        for(Thread t : list) t.start();
+        for(long i = 0, n = (each * producers); i < n; i++) check(buf, ring.wget(buf));
+        for(Thread t : list) t.join();
+    }
+}